@@ -0,0 +1,29 @@
+package configurator.benchmarks;
+
+import javax.json.JsonObject;
+
+import configurator.TypedProperty;
+import configurator.annotations.Config;
+import configurator.annotations.ConfigJson;
+import configurator.annotations.ConfigTyped;
+import configurator.enums.RuntimeCheckType;
+
+// Fields used as injection points, one per annotation and runtime check.
+public class InjectionTargets {
+	
+	@Config(value = ProducerBenchmark.KEY, runtimeCheck = RuntimeCheckType.NO)
+	String configNo;
+	@Config(value = ProducerBenchmark.KEY, runtimeCheck = RuntimeCheckType.YES)
+	String configYes;
+	
+	@ConfigTyped(value = ProducerBenchmark.KEY, defaultValue = "1", runtimeCheck = RuntimeCheckType.NO)
+	TypedProperty<Integer> typedNo;
+	@ConfigTyped(value = ProducerBenchmark.KEY, defaultValue = "1", runtimeCheck = RuntimeCheckType.YES)
+	TypedProperty<Integer> typedYes;
+	
+	@ConfigJson(property = ProducerBenchmark.JSON_KEY, runtimeCheck = RuntimeCheckType.NO)
+	TypedProperty<JsonObject> jsonNo;
+	@ConfigJson(property = ProducerBenchmark.JSON_KEY, runtimeCheck = RuntimeCheckType.YES)
+	TypedProperty<JsonObject> jsonYes;
+
+}
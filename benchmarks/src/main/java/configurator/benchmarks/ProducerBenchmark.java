@@ -0,0 +1,134 @@
+package configurator.benchmarks;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.enterprise.inject.spi.InjectionPoint;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import configurator.ConfiguratorSettings;
+import configurator.TypedProperty;
+import configurator.enums.RuntimeCheckType;
+import configurator.json.JsonInjectionPlan;
+import configurator.json.LoaderJson;
+import configurator.json.LoaderJsonSetup;
+import configurator.simple.ConfigProducer;
+import configurator.typed.ConfigTypedProducer;
+import configurator.typed.LoaderProperties;
+
+// Hot paths of the producers and loaders. Throughput, and allocation rate with '-prof gc'.
+// Threads are set on the command line, e.g.: java -jar target/benchmarks.jar -t 1 -t 8 -t 64 -prof gc
+// Every parameter combination runs in a fresh JVM, the library keeps its state in static fields.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProducerBenchmark {
+	
+	static final String KEY = "bench.key.5";
+	static final String JSON_KEY = "bench.json";
+	
+	// Number of properties in the property file.
+	@Param({"10", "10000"})
+	public int fileSize;
+	
+	@Param({"NO", "YES"})
+	public RuntimeCheckType runtimeCheck;
+	
+	private Path directory;
+	
+	private final ConfigProducer configProducer = new ConfigProducer();
+	private final ConfigTypedProducer typedProducer = new ConfigTypedProducer();
+	
+	private InjectionPoint configIp;
+	private InjectionPoint typedIp;
+	private InjectionPoint jsonIp;
+	private JsonInjectionPlan jsonPlan;
+	
+	
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		
+		directory = Files.createTempDirectory("configurator-bench");
+		
+		Path properties = directory.resolve("bench.properties");
+		try (Writer writer = Files.newBufferedWriter(properties, StandardCharsets.UTF_8)) {
+			for(int i = 0; i < fileSize; i++)
+				writer.write("bench.key." + i + "=" + i + "\n");
+		}
+		
+		Path jsonProperties = directory.resolve("bench-json.properties");
+		try (Writer writer = Files.newBufferedWriter(jsonProperties, StandardCharsets.UTF_8)) {
+			writer.write(JSON_KEY + "={\"name\":\"bench\",\"size\":" + fileSize + ",\"values\":[1,2,3]}\n");
+		}
+		
+		HashSet<String> propertiesPaths = new HashSet<>();
+		propertiesPaths.add(properties.toString());
+		HashSet<String> jsonPropertiesPaths = new HashSet<>();
+		jsonPropertiesPaths.add(jsonProperties.toString());
+		
+		ConfiguratorSettings settings = ConfiguratorSettings.getInstance();
+		settings.setPropertiesPaths(propertiesPaths);
+		settings.setJsonPropertiesPaths(jsonPropertiesPaths);
+		LoaderProperties.loadPropertiesFromFile(propertiesPaths);
+		LoaderJsonSetup.loadJsonPropertiesFromPaths(jsonPropertiesPaths);
+		
+		boolean yes = runtimeCheck == RuntimeCheckType.YES;
+		configIp = new StubInjectionPoint(InjectionTargets.class, yes ? "configYes" : "configNo");
+		typedIp = new StubInjectionPoint(InjectionTargets.class, yes ? "typedYes" : "typedNo");
+		jsonIp = new StubInjectionPoint(InjectionTargets.class, yes ? "jsonYes" : "jsonNo");
+		jsonPlan = JsonInjectionPlan.of(jsonIp);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			for(Path file : (Iterable<Path>) files::iterator)
+				Files.delete(file);
+		}
+		Files.delete(directory);
+	}
+	
+	
+	@Benchmark
+	public String produceConfig() {
+		return configProducer.produceConfig(configIp);
+	}
+	
+	@Benchmark
+	public TypedProperty<Integer> produceTyped() {
+		return typedProducer.produceTyped(typedIp);
+	}
+	
+	@Benchmark
+	public TypedProperty<?> loadJson() {
+		return LoaderJson.loadJson(jsonPlan);
+	}
+	
+	@Benchmark
+	public String findPropertyValue() {
+		return LoaderProperties.findPropertyValue(KEY, runtimeCheck);
+	}
+
+}
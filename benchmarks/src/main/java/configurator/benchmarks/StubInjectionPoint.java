@@ -0,0 +1,97 @@
+package configurator.benchmarks;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.enterprise.inject.spi.Annotated;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.InjectionPoint;
+
+// An InjectionPoint of a real annotated field, producers are called the same way the container calls them.
+public class StubInjectionPoint implements InjectionPoint {
+	
+	private final Field field;
+	private final Annotated annotated;
+	
+	
+	public StubInjectionPoint(Class<?> clazz, String fieldName) {
+		try {
+			this.field = clazz.getDeclaredField(fieldName);
+		} catch (NoSuchFieldException e) {
+			throw new IllegalArgumentException("No field '" + fieldName + "' in " + clazz.getName(), e);
+		}
+		this.annotated = new FieldAnnotated(field);
+	}
+	
+	
+	@Override
+	public Type getType() {
+		return field.getGenericType();
+	}
+	@Override
+	public Set<Annotation> getQualifiers() {
+		return Collections.emptySet();
+	}
+	@Override
+	public Bean<?> getBean() {
+		return null;
+	}
+	@Override
+	public Member getMember() {
+		return field;
+	}
+	@Override
+	public Annotated getAnnotated() {
+		return annotated;
+	}
+	@Override
+	public boolean isDelegate() {
+		return false;
+	}
+	@Override
+	public boolean isTransient() {
+		return false;
+	}
+	
+	
+	private static class FieldAnnotated implements Annotated {
+		
+		private final Field field;
+		
+		private FieldAnnotated(Field field) {
+			this.field = field;
+		}
+		
+		@Override
+		public Type getBaseType() {
+			return field.getGenericType();
+		}
+		@Override
+		public Set<Type> getTypeClosure() {
+			return Collections.singleton(field.getGenericType());
+		}
+		@Override
+		public <T extends Annotation> T getAnnotation(Class<T> annotationType) {
+			return field.getAnnotation(annotationType);
+		}
+		@Override
+		public <T extends Annotation> Set<T> getAnnotations(Class<T> annotationType) {
+			return new HashSet<>(Arrays.asList(field.getAnnotationsByType(annotationType)));
+		}
+		@Override
+		public Set<Annotation> getAnnotations() {
+			return new HashSet<>(Arrays.asList(field.getAnnotations()));
+		}
+		@Override
+		public boolean isAnnotationPresent(Class<? extends Annotation> annotationType) {
+			return field.isAnnotationPresent(annotationType);
+		}
+	}
+
+}
@@ -0,0 +1,177 @@
+package configurator;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import configurator.json.LoaderJsonSetup;
+import configurator.typed.LoaderProperties;
+import configurator.utils.VerboseLogger;
+
+// Watches directories of property files, JSON property files and JSON files in a background thread and reloads changed files.
+// Any event in a watched directory rechecks all files (one stat call per file, see FileChangeTracker), so renames over a file
+// and symlink swaps (e.g. '..data' in mounted config volumes) are picked up even though the file name itself gets no event.
+public class ConfigFileWatcher {
+	
+	// Editors and volume updates produce bursts of events, they are collected for this time and handled once.
+	private static final long SETTLE_MILLIS = 20;
+	
+	private static ConfigFileWatcher watcher;
+	
+	private ConfiguratorSettings settings = ConfiguratorSettings.getInstance();
+	private Logger logger = settings.getLogger();
+	private VerboseLogger loggerVerbose = settings.getVerboseLogger();
+	
+	private final Set<Path> watchedDirectories = new HashSet<>();
+	private WatchService watchService;
+	private Thread thread;
+	
+	
+	public static synchronized ConfigFileWatcher getInstance() {
+		if(watcher == null)
+			watcher = new ConfigFileWatcher();
+		return watcher;
+	}
+	
+	
+	public boolean isRunning() {
+		return thread != null;
+	}
+	
+	
+	// Registers directories of all paths in the settings and starts the thread if not running. May be called many times.
+	public synchronized void start() {
+		
+		try {
+			if(watchService == null)
+				watchService = FileSystems.getDefault().newWatchService();
+		} catch (IOException e) {
+			logger.severe("Configurator: File watcher can not be started, exception: " + e.getMessage());
+			return;
+		}
+		
+		registerDirectories();
+		
+		if(thread == null) {
+			thread = new Thread(this::watch, "Configurator-file-watcher");
+			thread.setDaemon(true);
+			thread.start();
+			loggerVerbose.log(() -> "FILE WATCHER -> started, directories: " + watchedDirectories);
+		}
+	}
+	
+	
+	public synchronized void stop() {
+		
+		if(thread == null)
+			return;
+		
+		thread.interrupt();
+		thread = null;
+		try {
+			watchService.close();
+		} catch (IOException e) {
+			logger.warning("Configurator: File watcher can not be closed, exception: " + e.getMessage());
+		}
+		watchService = null;
+		watchedDirectories.clear();
+		loggerVerbose.log("FILE WATCHER -> stopped");
+	}
+	
+	
+	private void watch() {
+		
+		WatchService service = watchService;
+		
+		while(!Thread.currentThread().isInterrupted()) {
+			try {
+				
+				WatchKey key = service.take();
+				do {
+					key.pollEvents();
+					if(!key.reset()) {
+						unregister(key);
+					}
+				} while((key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null);
+				
+				reload();
+			
+			} catch (InterruptedException | ClosedWatchServiceException e) {
+				return;
+			} catch (RuntimeException e) {			// Keeps watching, the file may be fixed later.
+				logger.severe("Configurator: File watcher can not reload files, exception: " + e.getMessage());
+			}
+		}
+	}
+	
+	
+	private void reload() {
+		loggerVerbose.log("FILE WATCHER -> change detected, checking files");
+		
+		LoaderProperties.loadPropertiesFromFile(settings.getPropertiesPaths());
+		LoaderJsonSetup.loadJsonPropertiesFromPaths(settings.getJsonPropertiesPaths());
+		LoaderJsonSetup.loadJsonFromFiles(settings.getJsonFilePaths());
+		
+		// A symlink swap may move the real file to a new directory.
+		registerDirectories();
+	}
+	
+	
+	private synchronized void registerDirectories() {
+		
+		if(watchService == null)
+			return;
+		
+		Set<String> paths = new HashSet<>();
+		paths.addAll(settings.getPropertiesPaths());
+		paths.addAll(settings.getJsonPropertiesPaths());
+		paths.addAll(settings.getJsonFilePaths());
+		
+		for(String path : paths) {
+			
+			Path file = Paths.get(path).toAbsolutePath();
+			register(file.getParent());
+			
+			try {				// The directory of a symlink target gets events for in place edits of the target.
+				if(Files.isSymbolicLink(file))
+					register(file.toRealPath().getParent());
+			} catch (IOException e) {
+				loggerVerbose.log(() -> "FILE WATCHER -> can not resolve symlink: " + file + ", exception: " + e.getMessage());
+			}
+		}
+	}
+	
+	
+	private void register(Path directory) {
+		
+		if(directory == null || watchedDirectories.contains(directory))
+			return;
+		
+		try {
+			directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+			watchedDirectories.add(directory);
+			loggerVerbose.log(() -> "FILE WATCHER -> watching directory: " + directory);
+		} catch (IOException e) {
+			logger.warning("Configurator: File watcher can not watch the directory: '" + directory + "', exception: " + e.getMessage());
+		}
+	}
+	
+	
+	private synchronized void unregister(WatchKey key) {
+		watchedDirectories.remove(key.watchable());
+	}
+
+}
@@ -0,0 +1,196 @@
+package configurator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import configurator.json.LoaderJsonSetup;
+import configurator.typed.LoaderProperties;
+import configurator.utils.VerboseLogger;
+
+// Loads all sources of a @ConfiguratorSetup annotation at deployment, one task per file or URL on a bounded pool,
+// so deployment waits for the slowest source instead of the sum of all. Results are put in the internal storage
+// in the declared order after all tasks end, failures of all tasks are reported together.
+public class ConfigPreloader {
+	
+	private static final int MAX_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+	
+	private ConfiguratorSettings settings = ConfiguratorSettings.getInstance();
+	private Logger logger = settings.getLogger();
+	private VerboseLogger loggerVerbose = settings.getVerboseLogger();
+	
+	private final Map<Future<?>, Runnable> abandonHandlers = new ConcurrentHashMap<>();
+	private int loadedSources = 0;
+	
+	
+	// Members are read by reflection from the setup class, they are cheap and loaded after the other sources.
+	public void preload(Collection<String> propertiesPaths, Collection<String> jsonPropertiesPaths, Collection<String> jsonFiles,
+			Collection<String> jsonUrls, Collection<String> jsonMembers, Class<?> setupClass, long timeoutMillis) {
+		
+		Map<String, Future<Boolean>> propertiesTasks = new LinkedHashMap<>();
+		Map<String, Future<Boolean>> jsonPropertiesTasks = new LinkedHashMap<>();
+		Map<String, Future<Object>> jsonFileTasks = new LinkedHashMap<>();
+		Map<String, Future<Object>> jsonUrlTasks = new LinkedHashMap<>();
+		
+		// URLs are downloaded asynchronously by JsonUrlLoader, the pool is for files only.
+		int fileTaskCount = propertiesPaths.size() + jsonPropertiesPaths.size() + jsonFiles.size();
+		int taskCount = fileTaskCount + jsonUrls.size();
+		ExecutorService executor = fileTaskCount == 0 ? null : Executors.newFixedThreadPool(Math.min(fileTaskCount, MAX_THREADS), new PreloadThreadFactory());
+		
+		List<String> failures = new ArrayList<>();
+		List<String> cachedUrls = new ArrayList<>();
+		
+		try {
+			for(String path : propertiesPaths)
+				propertiesTasks.put(path, submitFileTask(executor, () -> LoaderProperties.readPropertiesFile(path), () -> LoaderProperties.forgetPropertiesFile(path)));
+			for(String path : jsonPropertiesPaths)
+				jsonPropertiesTasks.put(path, submitFileTask(executor, () -> LoaderJsonSetup.readJsonPropertiesFile(path), () -> LoaderJsonSetup.forgetJsonPropertiesFile(path)));
+			for(String path : jsonFiles)
+				jsonFileTasks.put(path, submitFileTask(executor, () -> LoaderJsonSetup.readJsonFile(path), () -> LoaderJsonSetup.forgetJsonFile(path)));
+			// A URL in the disk cache is served from it at once and revalidated after all sources are applied.
+			for(String url : jsonUrls) {
+				Object cached = LoaderJsonSetup.readCachedJsonUrl(url);
+				if(cached != null) {
+					jsonUrlTasks.put(url, CompletableFuture.completedFuture(cached));
+					cachedUrls.add(url);
+				} else {
+					jsonUrlTasks.put(url, LoaderJsonSetup.readJsonUrlAsync(url));
+				}
+			}
+			
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+			
+			for(Map.Entry<String, Future<Boolean>> task : propertiesTasks.entrySet())
+				await(task.getKey(), task.getValue(), deadline, timeoutMillis, failures);
+			for(Map.Entry<String, Future<Boolean>> task : jsonPropertiesTasks.entrySet())
+				await(task.getKey(), task.getValue(), deadline, timeoutMillis, failures);
+			
+			Map<String, Object> loadedJson = new LinkedHashMap<>();
+			for(Map.Entry<String, Future<Object>> task : jsonFileTasks.entrySet()) {
+				Object json = await(task.getKey(), task.getValue(), deadline, timeoutMillis, failures);
+				if(json != null)
+					loadedJson.put(task.getKey(), json);
+			}
+			for(Map.Entry<String, Future<Object>> task : jsonUrlTasks.entrySet()) {
+				Object json = await(task.getKey(), task.getValue(), deadline, timeoutMillis, failures);
+				if(json != null)
+					loadedJson.put(task.getKey(), json);
+			}
+			
+			// Merged in the declared order, the same as loading one after another.
+			if(!propertiesTasks.isEmpty())
+				LoaderProperties.applyProperties(propertiesPaths);
+			if(!jsonPropertiesTasks.isEmpty())
+				LoaderJsonSetup.applyJsonProperties(jsonPropertiesPaths);
+			if(!loadedJson.isEmpty())
+				settings.getStore().putAllJson(loadedJson);
+			for(String url : cachedUrls)
+				LoaderJsonSetup.revalidateJsonUrl(url);
+			
+		} finally {
+			if(executor != null)
+				executor.shutdownNow();
+		}
+		
+		try {
+			LoaderJsonSetup.loadJsonFromMembers(jsonMembers, setupClass);
+		} catch (ConfiguratorException e) {
+			failures.add(e.getMessage());
+		}
+		
+		if(!failures.isEmpty()) {
+			String excMessage = "Preloading failed for " + failures.size() + " source(s): " + String.join(" | ", failures);
+			if(settings.isAllowDeploymentWithExceptions() == true) {
+				logger.severe("Configurator: " + excMessage);
+			} else {
+				throw new ConfiguratorException(excMessage);
+			}
+		}
+		
+		int loaded = loadedSources;
+		loggerVerbose.log(() -> "PRELOADER -> sources: " + taskCount + ", loaded: " + loaded + ", failures: " + failures.size());
+	}
+	
+	
+	// A file task abandoned at the timeout keeps running, file I/O is not interruptible. If it records the file as read after
+	// the results were applied, next reloads would see it unchanged and never apply it, so the file is forgotten when it ends.
+	private <T> Future<T> submitFileTask(ExecutorService executor, Callable<T> read, Runnable forget) {
+		
+		AtomicBoolean abandoned = new AtomicBoolean();
+		Future<T> task = executor.submit(() -> {
+			try {
+				return read.call();
+			} finally {
+				if(abandoned.get() == true)
+					forget.run();
+			}
+		});
+		abandonHandlers.put(task, () -> {
+			abandoned.set(true);
+			forget.run();
+		});
+		return task;
+	}
+	
+	
+	// Returns the task result or null, a failure or a timeout is added to the failures.
+	private <T> T await(String source, Future<T> task, long deadline, long timeoutMillis, List<String> failures) {
+		
+		try {
+			T result = task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+			if(result != null && !Boolean.FALSE.equals(result))
+				loadedSources++;
+			return result;
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			failures.add(cause instanceof ConfiguratorException ? cause.getMessage() : "'" + source + "', exception: " + cause);
+		} catch (TimeoutException | CancellationException e) {
+			abandon(task);
+			failures.add("'" + source + "' not loaded within the preload timeout of " + timeoutMillis + " ms");
+		} catch (InterruptedException e) {
+			abandon(task);
+			Thread.currentThread().interrupt();
+			failures.add("'" + source + "' not loaded, interrupted");
+		}
+		return null;
+	}
+	
+	
+	private void abandon(Future<?> task) {
+		
+		task.cancel(true);
+		Runnable handler = abandonHandlers.remove(task);
+		if(handler != null)
+			handler.run();
+	}
+	
+	
+	private static class PreloadThreadFactory implements ThreadFactory {
+		
+		private final AtomicInteger count = new AtomicInteger();
+		
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "Configurator-preload-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
@@ -2,17 +2,28 @@ package configurator;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 
 import javax.enterprise.event.Observes;
+import javax.enterprise.inject.spi.AfterDeploymentValidation;
+import javax.enterprise.inject.spi.Annotated;
 import javax.enterprise.inject.spi.AnnotatedType;
 import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.BeforeShutdown;
 import javax.enterprise.inject.spi.Extension;
+import javax.enterprise.inject.spi.InjectionPoint;
 import javax.enterprise.inject.spi.ProcessAnnotatedType;
+import javax.enterprise.inject.spi.ProcessInjectionPoint;
 import javax.enterprise.inject.spi.WithAnnotations;
 
+import configurator.annotations.ConfigJson;
+import configurator.annotations.ConfigTyped;
 import configurator.annotations.ConfiguratorSetup;
-import configurator.json.LoaderJsonSetup;
-import configurator.typed.LoaderProperties;
+import configurator.json.ClassMemberAccessor;
+import configurator.json.JsonInjectionPlan;
+import configurator.json.JsonUrlLoader;
+import configurator.store.ConfigSnapshot;
+import configurator.typed.TypedInjectionPlan;
 import configurator.utils.VerboseLogger;
 
 
@@ -31,25 +42,35 @@ public class ConfiguratorExtension implements Extension {
 			
 			boolean runtimeCheck = annotation.runtimeCheck();
 	        boolean allowDeploymentWithExceptions = annotation.allowDeploymentWithExceptions();
+	        boolean watchFiles = annotation.watchFiles();
+	        boolean lazyJson = annotation.lazyJson();
 			
 	        int readTimeout = annotation.readTimeout();
 	        int connectionTimeout = annotation.connectionTimeout();
+	        long systemPropertiesRefreshInterval = annotation.systemPropertiesRefreshInterval();
+	        long preloadTimeout = annotation.preloadTimeout();
+	        long minReloadInterval = annotation.minReloadInterval();
+	        String urlCacheDirectory = annotation.urlCacheDirectory();
 			
 	        settings.setRuntimeCheck(runtimeCheck);
 			settings.setAllowDeploymentWithExceptions(allowDeploymentWithExceptions);
+			settings.setLazyJson(lazyJson);
 			
 			settings.setReadTimout(readTimeout);
 			settings.setConnectionTimout(connectionTimeout);
+			settings.setUrlCacheDirectory(urlCacheDirectory);
+			settings.getSystemProperties().setRefreshInterval(systemPropertiesRefreshInterval);
+			settings.getReloadCoordinator().setMinIntervalMillis(minReloadInterval);
 	        
-	        HashSet<String> propertiesPaths = new HashSet<String>(Arrays.asList(annotation.value()));
+	        HashSet<String> propertiesPaths = new LinkedHashSet<String>(Arrays.asList(annotation.value()));
 			propertiesPaths.remove("");		// remove default ""
-			HashSet<String> jsonPropertiesPaths = new HashSet<String>(Arrays.asList(annotation.jsonPropertyFilePaths()));
+			HashSet<String> jsonPropertiesPaths = new LinkedHashSet<String>(Arrays.asList(annotation.jsonPropertyFilePaths()));
 			jsonPropertiesPaths.remove("");
-			HashSet<String> jsonFiles = new HashSet<String>(Arrays.asList(annotation.jsonFiles()));
+			HashSet<String> jsonFiles = new LinkedHashSet<String>(Arrays.asList(annotation.jsonFiles()));
 			jsonFiles.remove("");
-			HashSet<String> jsonUrls = new HashSet<String>(Arrays.asList(annotation.jsonUrls()));
+			HashSet<String> jsonUrls = new LinkedHashSet<String>(Arrays.asList(annotation.jsonUrls()));
 			jsonUrls.remove("");
-			HashSet<String> jsonMembers = new HashSet<String>(Arrays.asList(annotation.jsonMembers()));
+			HashSet<String> jsonMembers = new LinkedHashSet<String>(Arrays.asList(annotation.jsonMembers()));
 			jsonMembers.remove("");
 			
 			if(propertiesPaths.contains("verbose")) {
@@ -62,8 +83,8 @@ public class ConfiguratorExtension implements Extension {
 			System.out.println("Configurator"
 					+ "\n--------------------------------------------------------------------------"
 					+ "\nConfigurator @ConfiguratorSetup from class: " + javaClass.getName()
-					+ "\n@ConfiguratorSetup runtimeCheck: " + runtimeCheck + ", allowDeploymentWithExceptions: " + allowDeploymentWithExceptions
-					+ "\n@ConfiguratorSetup readTimeout: " + readTimeout + ", connectionTimout: " + connectionTimeout
+					+ "\n@ConfiguratorSetup runtimeCheck: " + runtimeCheck + ", allowDeploymentWithExceptions: " + allowDeploymentWithExceptions + ", watchFiles: " + watchFiles + ", lazyJson: " + lazyJson
+					+ "\n@ConfiguratorSetup readTimeout: " + readTimeout + ", connectionTimout: " + connectionTimeout + ", systemPropertiesRefreshInterval: " + systemPropertiesRefreshInterval + ", preloadTimeout: " + preloadTimeout + ", minReloadInterval: " + minReloadInterval + ", urlCacheDirectory: " + urlCacheDirectory
 					+ "\n@ConfiguratorSetup properties paths found: " + propertiesPaths
 					+ "\n@ConfiguratorSetup json properties paths found: " + jsonPropertiesPaths
 					+ "\n@ConfiguratorSetup json files found: " + jsonFiles
@@ -72,11 +93,7 @@ public class ConfiguratorExtension implements Extension {
 					+ "\n--------------------------------------------------------------------------");
 			
 			
-			LoaderProperties.loadPropertiesFromFile(propertiesPaths);
-			LoaderJsonSetup.loadJsonPropertiesFromPaths(jsonPropertiesPaths);
-			LoaderJsonSetup.loadJsonFromFiles(jsonFiles);
-			LoaderJsonSetup.loadJsonFromUrls(jsonUrls);
-			LoaderJsonSetup.loadJsonFromMembers(jsonMembers, javaClass);
+			new ConfigPreloader().preload(propertiesPaths, jsonPropertiesPaths, jsonFiles, jsonUrls, jsonMembers, javaClass, preloadTimeout);
 			
 			settings.setPropertiesPaths(propertiesPaths);
 			settings.setJsonPropertiesPaths(jsonPropertiesPaths);
@@ -84,10 +101,48 @@ public class ConfiguratorExtension implements Extension {
 			settings.setJsonUrls(jsonUrls);
 			settings.setJsonMembers(javaClass, jsonMembers);
 			
-			loggerVerbose.log("jsonProperties -> size: " + settings.getJsonProperties().size() + ", keys: " + settings.getJsonProperties().keySet());
+			if(watchFiles == true) {
+				ConfigFileWatcher watcher = ConfigFileWatcher.getInstance();
+				watcher.start();
+				settings.setWatchFiles(watcher.isRunning());
+			}
+			
+			ConfigSnapshot snapshot = settings.getStore().current();
+			loggerVerbose.log(() -> "jsonProperties -> version: " + snapshot.getVersion() + ", size: " + snapshot.getJson().size() + ", keys: " + snapshot.getJson().keySet());
 			
 		}
 		
     }
 	
+	
+	// Injection points are processed after all @ConfiguratorSetup annotations, plans see the final global runtime check.
+	protected <T, X> void processInjectionPoint(@Observes ProcessInjectionPoint<T, X> pip) {
+		
+		InjectionPoint ip = pip.getInjectionPoint();
+		Annotated annotated = ip.getAnnotated();
+		
+		if(annotated.isAnnotationPresent(ConfigJson.class)) {
+			JsonInjectionPlan.of(ip);
+		}
+		if(annotated.isAnnotationPresent(ConfigTyped.class)) {
+			TypedInjectionPlan.of(ip);
+		}
+	}
+	
+	
+	// Beans can be looked up from now, class member sources use bean instances, see ClassMemberAccessor.
+	protected void afterDeploymentValidation(@Observes AfterDeploymentValidation adv, BeanManager bm) {
+		ConfiguratorSettings.getInstance().setBeanManager(bm);
+	}
+	
+	
+	protected void beforeShutdown(@Observes BeforeShutdown bs) {
+		ConfigFileWatcher.getInstance().stop();
+		ConfiguratorSettings.getInstance().getRefreshCache().shutdown();
+		JsonUrlLoader.shutdown();
+		ClassMemberAccessor.releaseAll();
+		ConfiguratorSettings.getInstance().setBeanManager(null);
+		ConfiguratorSettings.getInstance().setWatchFiles(false);
+	}
+	
 }
@@ -2,12 +2,21 @@ package configurator;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.Properties;
 import java.util.logging.Logger;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.spi.BeanManager;
 
+import configurator.source.ConfigSourceResolver;
+import configurator.store.ConfigStore;
+import configurator.store.EnvironmentView;
+import configurator.store.SystemPropertiesView;
+import configurator.typed.ConverterRegistry;
+import configurator.utils.ReloadCoordinator;
+import configurator.utils.SingleFlight;
+import configurator.utils.StaleWhileRevalidateCache;
 import configurator.utils.VerboseLogger;
 
 @ApplicationScoped
@@ -17,20 +26,37 @@ public class ConfiguratorSettings {
 	
 	private final Logger logger = Logger.getLogger("ConfigLogger");
 	
-	private boolean verbose = false;
-	
-	private final Properties loadedProperties = new Properties();
-	private final Properties jsonProperties = new Properties();
-	
-	private final HashSet<String> propertiesPaths = new HashSet<>();
-	private final HashSet<String> jsonPropertiesPaths = new HashSet<>();
-	private final HashSet<String> jsonFilePaths = new HashSet<>();
-	private final HashSet<String> jsonUrls = new HashSet<>();
+	private final VerboseLogger verboseLogger = new VerboseLogger(Logger.getLogger(ConfiguratorSettings.class.getName()));
+	
+	// Holds loaded properties and jsonProperties.
+	private final ConfigStore store = new ConfigStore();
+	private final EnvironmentView environment = new EnvironmentView();
+	private final SystemPropertiesView systemProperties = new SystemPropertiesView();
+	// Lookup order of env, system, property files and sources found by the ServiceLoader.
+	private final ConfigSourceResolver sourceResolver = new ConfigSourceResolver(environment, systemProperties, store, logger);
+	// String to typed value converters, built-in and found by the ServiceLoader.
+	private final ConverterRegistry converters = new ConverterRegistry(logger);
+	// Values of URLs and class members with maxAge set, refreshed in the background.
+	private final StaleWhileRevalidateCache refreshCache = new StaleWhileRevalidateCache(logger);
+	// Concurrent runtime loads of the same file or URL share one load.
+	private final SingleFlight singleFlight = new SingleFlight();
+	// Runtime check reloads of property files, one thread at a time.
+	private final ReloadCoordinator reloadCoordinator = new ReloadCoordinator();
+	
+	private final HashSet<String> propertiesPaths = new LinkedHashSet<>();
+	private final HashSet<String> jsonPropertiesPaths = new LinkedHashSet<>();
+	private final HashSet<String> jsonFilePaths = new LinkedHashSet<>();
+	private final HashSet<String> jsonUrls = new LinkedHashSet<>();
 	private final Map<Class<?>, HashSet<String>> jsonMembers = new HashMap<>();
 	
 	private boolean runtimeCheck = false;
 	private boolean allowDeploymentWithExceptions = false;
+	private boolean watchFiles = false;
+	private boolean lazyJson = false;
 	
+	private String urlCacheDirectory = "";
+	// Set when the deployment is validated, class member sources then use bean instances.
+	private volatile BeanManager beanManager;
 	private int connectionTimout = 1000;
 	private int readTimout = 1000;
 	
@@ -50,26 +76,34 @@ public class ConfiguratorSettings {
 		return logger;
 	}
 	
+	// The same instance for all callers, setVerbose switches it also at runtime.
 	public VerboseLogger getVerboseLogger() {
-		return createVerboseLogger();
-	}
-	private VerboseLogger createVerboseLogger() {
-		
-		if(this.verbose == true)
-			//return System.out::println;
-			//return System.err::println;
-			//return Logger.getLogger(this.getClass().getName())::severe;
-			return Logger.getLogger(this.getClass().getName())::warning;
-			//return Logger.getLogger(this.getClass().getName())::info;
-		else
-			return s -> {};
+		return verboseLogger;
 	}
 	
-	public Properties getLoadedProperties() {
-		return loadedProperties;
+	public ConfigStore getStore() {
+		return store;
+	}
+	public EnvironmentView getEnvironment() {
+		return environment;
+	}
+	public SystemPropertiesView getSystemProperties() {
+		return systemProperties;
+	}
+	public ConfigSourceResolver getSourceResolver() {
+		return sourceResolver;
 	}
-	public Properties getJsonProperties() {
-		return jsonProperties;
+	public ConverterRegistry getConverters() {
+		return converters;
+	}
+	public StaleWhileRevalidateCache getRefreshCache() {
+		return refreshCache;
+	}
+	public SingleFlight getSingleFlight() {
+		return singleFlight;
+	}
+	public ReloadCoordinator getReloadCoordinator() {
+		return reloadCoordinator;
 	}
 	
 	
@@ -125,6 +159,40 @@ public class ConfiguratorSettings {
 	}
 	
 	
+	// True when the file watcher is running, files are then reloaded in the background instead of at injection.
+	public boolean isWatchFiles() {
+		return watchFiles;
+	}
+	public void setWatchFiles(boolean watchFiles) {
+		this.watchFiles = watchFiles;
+	}
+	
+	
+	// True when preloaded JSON is kept raw and parsed on the first use.
+	public boolean isLazyJson() {
+		return lazyJson;
+	}
+	public void setLazyJson(boolean lazyJson) {
+		this.lazyJson = lazyJson;
+	}
+	
+	
+	public BeanManager getBeanManager() {
+		return beanManager;
+	}
+	public void setBeanManager(BeanManager beanManager) {
+		this.beanManager = beanManager;
+	}
+	
+	
+	public String getUrlCacheDirectory() {
+		return urlCacheDirectory;
+	}
+	public void setUrlCacheDirectory(String urlCacheDirectory) {
+		this.urlCacheDirectory = urlCacheDirectory;
+	}
+	
+	
 	public int getConnectionTimout() {
 		return connectionTimout;
 	}
@@ -142,11 +210,11 @@ public class ConfiguratorSettings {
 
 
 	public boolean isVerbose() {
-		return verbose;
+		return verboseLogger.isEnabled();
 	}
 
 	public void setVerbose(boolean verbose) {
-		this.verbose = verbose;
+		verboseLogger.setEnabled(verbose);
 	}
 	
 	
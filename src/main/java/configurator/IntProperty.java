@@ -0,0 +1,121 @@
+package configurator;
+
+import javax.enterprise.inject.Vetoed;
+
+/*    Copyright 2019 Arkadiusz Lopuszynski 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+* 
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/ 
+
+/**
+ * It is used as a container for the injection of a int value, like {@link TypedProperty} but without boxing.
+ * <p>
+ * Values are parsed once at injection, the getters return the stored primitives and do not allocate.
+ * <pre>
+ * {@literal @Inject}
+ * {@literal @ConfigTyped(value = "propInt", defaultValue = "10")}
+ * IntProperty myValue;
+ *  ...
+ *  int myInt = myValue.getAsIntOrDefaultValue();
+ * </pre>
+ *
+ */
+
+@Vetoed
+public class IntProperty {
+	
+	private final String propertyName;
+	private final int value;
+	private final boolean valuePresent;
+	private final int defaultValue;
+	private final boolean defaultValuePresent;
+	
+	
+	public IntProperty(String propertyName, Integer value, Integer defaultValue) {
+		this.propertyName = propertyName;
+		this.valuePresent = value != null;
+		this.value = valuePresent ? value : 0;
+		this.defaultValuePresent = defaultValue != null;
+		this.defaultValue = defaultValuePresent ? defaultValue : 0;
+	}
+	
+	/**
+	 * Returns a property name.
+	 */
+	public String getPropertyName() {
+		return propertyName;
+	}
+	
+	/**
+	 * Returns false if no value was loaded or parsing failed.
+	 */
+	public boolean isValuePresent() {
+		return valuePresent;
+	}
+	
+	/**
+	 * Returns injected value (or 0 if any error).
+	 */
+	public int getAsInt() {
+		return value;
+	}
+	
+	/**
+	 * Returns false if no default value was set or parsing failed.
+	 */
+	public boolean isDefaultValuePresent() {
+		return defaultValuePresent;
+	}
+	
+	/**
+	 * Returns injected default value (or 0 if not set or any error).
+	 */
+	public int getDefaultValueAsInt() {
+		return defaultValue;
+	}
+	
+	/**
+	 * If a value is present returns it otherwise returns a default value.
+	 */
+	public int getAsIntOrDefaultValue() {
+		return valuePresent ? value : defaultValue;
+	}
+	
+	/**
+	 * If a value is not present returns the argument of the method.
+	 */
+	public int getAsIntOr(int orValue) {
+		return valuePresent ? value : orValue;
+	}
+	
+	/**
+	 * If a value and a default value are not present returns the argument of the method.
+	 */
+	public int getAsIntOrDefaultValueOr(int orValue) {
+		if(valuePresent)
+			return value;
+		else if(defaultValuePresent)
+			return defaultValue;
+		else
+			return orValue;
+	}
+	
+	
+	@Override
+	public String toString() {
+		return "\nIntProperty name:\t" + propertyName
+				+ "\nvalue:\t\t\t" + (valuePresent ? String.valueOf(value) : "not present")
+				+ "\ndefaultValue:\t\t" + (defaultValuePresent ? String.valueOf(defaultValue) : "not present");
+	}
+	
+}
@@ -0,0 +1,140 @@
+package configurator;
+
+import java.util.function.Supplier;
+
+import javax.enterprise.inject.Vetoed;
+
+import configurator.source.ConfigSourceResolver;
+import configurator.store.ConfigSnapshot;
+import configurator.store.ConfigStore;
+
+/*    Copyright 2019 Arkadiusz Lopuszynski 
+* 
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+* 
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/ 
+
+/**
+ * A {@link TypedProperty} injected with the 'live' attribute set to true.
+ * <p>
+ * Getters return values of the current configuration. Values are loaded again only if the internal storage or a config source changed
+ * since the last load, otherwise a getter is a check of the current snapshot and returns the values loaded before.
+ * <pre>
+ * {@literal @Inject}
+ * {@literal @ConfigTyped(value = "propDouble", live = true)}
+ * {@literal TypedProperty<Double> myValue;}
+ * </pre>
+ * Setters are not supported.
+ *
+ */
+
+@Vetoed
+public class LiveTypedProperty<T> extends TypedProperty<T> {
+	
+	private final ConfigStore store;
+	private final ConfigSourceResolver sourceResolver;
+	private final Supplier<TypedProperty<T>> loader;
+	
+	private volatile Loaded<T> loaded;
+	
+	
+	public LiveTypedProperty(Supplier<TypedProperty<T>> loader) {
+		ConfiguratorSettings settings = ConfiguratorSettings.getInstance();
+		this.store = settings.getStore();
+		this.sourceResolver = settings.getSourceResolver();
+		this.loader = loader;
+		this.loaded = load();
+	}
+	
+	
+	private TypedProperty<T> current() {
+		
+		Loaded<T> current = loaded;
+		if(current.snapshot == store.current() && current.sourcesVersion == sourceResolver.getVersion())
+			return current.property;
+		
+		current = load();
+		loaded = current;
+		return current.property;
+	}
+	
+	// Versions are taken before loading, a change made while loading is loaded again by the next call.
+	private Loaded<T> load() {
+		ConfigSnapshot snapshot = store.current();
+		long sourcesVersion = sourceResolver.getVersion();
+		return new Loaded<>(snapshot, sourcesVersion, loader.get());
+	}
+	
+	
+	@Override
+	public String getPropertyName() {
+		return current().getPropertyName();
+	}
+	@Override
+	public void setPropertyName(String propertyName) {
+		throw new UnsupportedOperationException("LiveTypedProperty can not be modified.");
+	}
+	
+	@Override
+	public T getValue() {
+		return current().getValue();
+	}
+	@Override
+	public void setValue(T value) {
+		throw new UnsupportedOperationException("LiveTypedProperty can not be modified.");
+	}
+	
+	@Override
+	public T getDefaultValue() {
+		return current().getDefaultValue();
+	}
+	@Override
+	public void setDefaultValue(T defaultValue) {
+		throw new UnsupportedOperationException("LiveTypedProperty can not be modified.");
+	}
+	
+	@Override
+	public T getValueOrDefaultValue() {
+		return current().getValueOrDefaultValue();
+	}
+	
+	@Override
+	public T getValueOr(T orValue) {
+		return current().getValueOr(orValue);
+	}
+	
+	@Override
+	public T getValueOrDefaultValueOr(T orValue) {
+		return current().getValueOrDefaultValueOr(orValue);
+	}
+	
+	
+	@Override
+	public String toString() {
+		return "\nLive" + current().toString().substring(1);
+	}
+	
+	
+	private static class Loaded<T> {
+		
+		private final ConfigSnapshot snapshot;
+		private final long sourcesVersion;
+		private final TypedProperty<T> property;
+		
+		private Loaded(ConfigSnapshot snapshot, long sourcesVersion, TypedProperty<T> property) {
+			this.snapshot = snapshot;
+			this.sourcesVersion = sourcesVersion;
+			this.property = property;
+		}
+	}
+	
+}
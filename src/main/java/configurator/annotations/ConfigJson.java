@@ -129,6 +129,23 @@ public @interface ConfigJson {
 	 * Name of a field or method for a value.
 	 */
 	@Nonbinding	String classMember() default "";
+	/**
+	 * A JSON Pointer (RFC 6901), e.g. "/catalog/items/0". If set, only this part of the loaded JSON is injected as a value.
+	 * A file is then read with a streaming parser which skips everything outside the pointed node.
+	 * <p>
+	 * Requires Java EE 8 (JSON-P 1.1), JsonPointer and the parser skip methods are not available in Java EE 7.
+	 */
+	@Nonbinding	String pointer() default "";
+	/**
+	 * With runtime check, a value from a URL or a class member is reused for this time in milliseconds instead of being loaded on every injection.
+	 * 0 (default) means it is always loaded.
+	 */
+	@Nonbinding	long maxAge() default 0;
+	/**
+	 * After maxAge, a value is still injected for this time in milliseconds while it is refreshed in the background.
+	 * Only a value older than maxAge + staleWhileRevalidate is loaded on the injecting thread.
+	 */
+	@Nonbinding	long staleWhileRevalidate() default 0;
 	
 	/**
 	 * Sets a default value from a String.
@@ -159,4 +176,11 @@ public @interface ConfigJson {
 	 */
 	@Nonbinding	RuntimeCheckType runtimeCheck() default RuntimeCheckType.USE_GLOBAL;
 	
+	/**
+	 * If true, the injected TypedProperty follows changes of the configuration. Values are loaded again only after the internal storage
+	 * or a config source changed (file watcher, reloads, TTL sources), otherwise getters return the values loaded before.
+	 * Useful for {@literal @ApplicationScoped} beans which are injected only once.
+	 */
+	@Nonbinding	boolean live() default false;
+	
 }
\ No newline at end of file
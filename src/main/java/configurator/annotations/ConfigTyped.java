@@ -98,4 +98,13 @@ public @interface ConfigTyped {
 	 */
 	@Nonbinding	RuntimeCheckType runtimeCheck() default RuntimeCheckType.USE_GLOBAL;
 	
+	/**
+	 * If true, the injected TypedProperty follows changes of the configuration. Values are loaded again only after the internal storage
+	 * or a config source changed (file watcher, reloads, TTL sources), otherwise getters return the values loaded before.
+	 * Useful for {@literal @ApplicationScoped} beans which are injected only once.
+	 * <p>
+	 * Not supported for IntProperty, LongProperty, DoubleProperty and BooleanProperty, their values are loaded once and a warning is logged.
+	 */
+	@Nonbinding	boolean live() default false;
+	
 }
\ No newline at end of file
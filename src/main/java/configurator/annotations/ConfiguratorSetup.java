@@ -106,14 +106,53 @@ public @interface ConfiguratorSetup {
 	 * When false, if any exception is thrown at the deployment time the deployment fails, if true will only log severe logs with errors.
 	 */
 	@Nonbinding boolean allowDeploymentWithExceptions() default false;
+	/**
+	 * When true, directories of property files, JSON property files and JSON files are watched in the background and changed files are reloaded.
+	 * <p>
+	 * Injections then use the internal storage for these files even if runtime check is true, changes are visible shortly after a file is saved.
+	 * Replacing a file by renaming or by swapping a symlink (as in mounted config volumes) is also detected.
+	 */
+	@Nonbinding boolean watchFiles() default false;
+	
+	/**
+	 * When true, JSON files, JSON property files and JSON from URLs are only checked to look like a JSON object or array at startup and kept as raw bytes.
+	 * <p>
+	 * A value is parsed on its first use, so JSON never injected is never parsed. Parsing errors are then reported at injection.
+	 */
+	@Nonbinding boolean lazyJson() default false;
 	
 	/**
-	 * Used for URL connections.
+	 * Time in milliseconds to wait for a URL connection to be established, 0 means no limit.
 	 */
 	@Nonbinding int connectionTimeout() default 1000;
 	/**
-	 * Used for URL connections.
+	 * Time in milliseconds to wait for data of a URL response, 0 means no limit.
 	 */
 	@Nonbinding int readTimeout() default 1000;
 	
+	/**
+	 * System properties are cached, this is the time in milliseconds after which the cache is refreshed. 0 or less means the cache is never refreshed automatically.
+	 * <p>
+	 * The environmental variables can not change at runtime, they are read once.
+	 */
+	@Nonbinding long systemPropertiesRefreshInterval() default 1000;
+	
+	/**
+	 * Sources are loaded in parallel at deployment, this is the time in milliseconds to wait for all of them.
+	 * Sources not loaded in this time are reported as errors, the same way as sources which can not be loaded.
+	 */
+	@Nonbinding long preloadTimeout() default 30000;
+	/**
+	 * With runtime check, property files and JSON property files are reloaded by one thread at a time and not more often than this
+	 * time in milliseconds. Threads coming meanwhile use the values loaded before. 0 (default) means no minimum time.
+	 */
+	@Nonbinding long minReloadInterval() default 0;
+	/**
+	 * A directory where JSON of every jsonUrls URL is saved after a successful download, with a checksum, ETag / Last-Modified and fetch time.
+	 * <p>
+	 * At deployment a URL found in it is served from the saved copy at once and downloaded again in the background,
+	 * so a restart does not wait for the config server and works when it is down. Empty (default) means no cache.
+	 */
+	@Nonbinding String urlCacheDirectory() default "";
+	
 }
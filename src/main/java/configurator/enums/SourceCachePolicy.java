@@ -0,0 +1,9 @@
+package configurator.enums;
+
+public enum SourceCachePolicy {
+	
+	STATIC,
+	TTL,
+	WATCHED;
+	
+}
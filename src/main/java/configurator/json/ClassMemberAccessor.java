@@ -0,0 +1,252 @@
+package configurator.json;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.inject.Singleton;
+
+import configurator.ConfiguratorException;
+import configurator.ConfiguratorSettings;
+import configurator.utils.VerboseLogger;
+
+// A field or method of a class resolved once to method handles and cached by class and member name.
+// Loading a member then reads it without reflection lookups or accessibility changes.
+// Static members are read without an instance. Otherwise one instance is reused: a CDI bean reference if the class is an
+// @ApplicationScoped, @Singleton or @Dependent bean and the member is a non private, non final method (client proxies only delegate
+// such methods), or an instance created once otherwise.
+// Before the deployment is validated beans are not available, the created instance is used until then.
+public class ClassMemberAccessor {
+	
+	private static ConfiguratorSettings settings = ConfiguratorSettings.getInstance();
+	private static VerboseLogger loggerVerbose = settings.getVerboseLogger();
+	
+	private static final Map<String, ClassMemberAccessor> accessors = new ConcurrentHashMap<>();
+	
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+	private static final MethodType MEMBER_TYPE = MethodType.methodType(Object.class, Object.class);
+	
+	private final Class<?> clazz;
+	private final String className;
+	private final String memberName;
+	private final boolean isMethod;
+	private final boolean isStatic;
+	private final boolean beanMember;			// may be called on a CDI client proxy
+	private final MethodHandle member;			// (Object instance) -> Object, static members ignore the instance
+	
+	private final ThreadLocal<Boolean> loading = new ThreadLocal<>();
+	private volatile Object instance;			// created once
+	private volatile Object beanInstance;		// bean reference, resolved once after the deployment is validated
+	private volatile boolean beanResolved;
+	private CreationalContext<?> creationalContext;
+	
+	
+	// Unresolvable members are not cached, the error is thrown on every call.
+	public static ClassMemberAccessor of(String memberName, String className) {
+		
+		String key = className + "." + memberName;
+		ClassMemberAccessor accessor = accessors.get(key);
+		if(accessor != null)
+			return accessor;
+		
+		return accessors.computeIfAbsent(key, k -> new ClassMemberAccessor(memberName, className));
+	}
+	
+	
+	// Destroys dependent beans and drops instances, at shutdown.
+	public static void releaseAll() {
+		for(ClassMemberAccessor accessor : accessors.values())
+			accessor.release();
+		accessors.clear();
+	}
+	
+	
+	private ClassMemberAccessor(String memberName, String className) {
+		
+		this.className = className;
+		this.memberName = memberName;
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		
+		try {
+			this.clazz = Class.forName(className);
+		} catch (ClassNotFoundException | RuntimeException | LinkageError e) {
+			throw new ConfiguratorException(String.format("Can not instantiate class: '%s'", className));
+		}
+		
+		// A method wins over a field of the same name, methods without parameters first.
+		Method method = null;
+		for(Method m : clazz.getDeclaredMethods()) {
+			if (m.getName().equals(memberName) && (method == null || m.getParameterCount() == 0)) {
+				method = m;
+				if(m.getParameterCount() == 0)
+					break;
+			}
+		}
+		
+		Field field = null;
+		if(method == null) {
+			for(Field f : clazz.getDeclaredFields()) {
+				if (f.getName().equals(memberName)) {
+					field = f;
+					break;
+				}
+			}
+		}
+		
+		if(field == null && method == null) {
+			throw new ConfiguratorException(String.format("Can not find the field or method named: '%s' in the class: '%s'", memberName, className));
+		}
+		
+		this.isMethod = method != null;
+		int modifiers = method != null ? method.getModifiers() : field.getModifiers();
+		this.isStatic = Modifier.isStatic(modifiers);
+		this.beanMember = method != null && !Modifier.isPrivate(modifiers) && !Modifier.isFinal(modifiers);
+		
+		try {
+			MethodHandle handle;
+			if(method != null) {
+				method.setAccessible(true);
+				handle = lookup.unreflect(method);
+			} else {
+				field.setAccessible(true);
+				handle = lookup.unreflectGetter(field);
+			}
+			if(isStatic)
+				handle = MethodHandles.dropArguments(handle, 0, Object.class);
+			this.member = handle.asType(MEMBER_TYPE);
+		} catch (IllegalAccessException | RuntimeException e) {
+			throw new ConfiguratorException(memberErrorMessage());
+		}
+	}
+	
+	
+	// Returns the value of the member. A load started while the bean itself is being created (a member of the class injected into,
+	// the bean is then created by the load) uses the instance created once instead of the bean to not create it recursively.
+	public Object load() {
+		
+		if(isStatic)
+			return invoke(null);
+		if(loading.get() != null)
+			return invoke(instance());
+		
+		loading.set(Boolean.TRUE);
+		try {
+			Object bean = beanMember ? bean() : null;
+			return invoke(bean != null ? bean : instance());
+		} finally {
+			loading.remove();
+		}
+	}
+	
+	
+	private Object invoke(Object target) {
+		
+		try {
+			return (Object) member.invokeExact(target);
+		} catch (Throwable e) {
+			throw new ConfiguratorException(memberErrorMessage());
+		}
+	}
+	
+	
+	private Object instance() {
+		
+		Object current = instance;
+		if(current != null)
+			return current;
+		
+		synchronized (this) {
+			if(instance == null)
+				instance = newInstance();
+			return instance;
+		}
+	}
+	
+	
+	// Null before the deployment is validated or if the class is not a bean.
+	private Object bean() {
+		
+		if(beanResolved == true)
+			return beanInstance;
+		
+		BeanManager beanManager = settings.getBeanManager();
+		if(beanManager == null)
+			return null;
+		
+		synchronized (this) {
+			if(beanResolved == false) {
+				beanInstance = beanReference(beanManager);
+				beanResolved = true;
+				loggerVerbose.log(() -> "JSON CLASS MEMBER LOADER -> instance for: " + className + "." + memberName + ", bean: " + (beanInstance != null));
+			}
+			return beanInstance;
+		}
+	}
+	
+	
+	// Null if the class is not a bean, it is ambiguous or its scope is not always active. Members are also loaded by background
+	// threads (refreshes, async downloads) where request or session contexts are not active, so such beans are not used.
+	private Object beanReference(BeanManager beanManager) {
+		
+		try {
+			Set<Bean<?>> beans = beanManager.getBeans(clazz);
+			Bean<?> bean = beanManager.resolve(beans);
+			if(bean == null)
+				return null;
+			Class<? extends Annotation> scope = bean.getScope();
+			if(scope != ApplicationScoped.class && scope != Singleton.class && scope != Dependent.class) {
+				loggerVerbose.log(() -> "JSON CLASS MEMBER LOADER -> bean scope not used: " + scope.getSimpleName() + ", class: " + className);
+				return null;
+			}
+			CreationalContext<?> context = beanManager.createCreationalContext(bean);
+			Object reference = beanManager.getReference(bean, clazz, context);
+			creationalContext = context;
+			return reference;
+		} catch (RuntimeException e) {
+			loggerVerbose.log(() -> "JSON CLASS MEMBER LOADER -> no bean for: " + className + ", " + e.getMessage());
+			return null;
+		}
+	}
+	
+	
+	private Object newInstance() {
+		
+		try {
+			Constructor<?> constructor = clazz.getDeclaredConstructor();
+			constructor.setAccessible(true);
+			return (Object) MethodHandles.lookup().unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE).invokeExact();
+		} catch (Throwable e) {
+			throw new ConfiguratorException(String.format("Can not instantiate class: '%s'", className));
+		}
+	}
+	
+	
+	private synchronized void release() {
+		if(creationalContext != null)
+			creationalContext.release();
+		creationalContext = null;
+		instance = null;
+		beanInstance = null;
+	}
+	
+	
+	private String memberErrorMessage() {
+		return isMethod
+				? String.format("Can not invoke the method: '%s' in the class: '%s'", memberName, className)
+				: String.format("Can not get the value of the field: '%s' in the class: '%s'", memberName, className);
+	}
+
+}
@@ -0,0 +1,194 @@
+package configurator.json;
+
+import java.lang.reflect.Member;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import javax.enterprise.inject.spi.InjectionPoint;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+
+import configurator.ConfiguratorSettings;
+import configurator.annotations.ConfigJson;
+import configurator.enums.JsonOperationTypeValue;
+import configurator.enums.RuntimeCheckType;
+import configurator.utils.ConfigUtils;
+
+// What LoaderJson needs from a @ConfigJson injection point, read from the annotation once and cached per field.
+// Built at bootstrap by ConfiguratorExtension or on the first injection.
+public class JsonInjectionPlan {
+	
+	private static ConfiguratorSettings settings = ConfiguratorSettings.getInstance();
+	private static Logger logger = settings.getLogger();
+	
+	private static final Map<Member, JsonInjectionPlan> plans = new ConcurrentHashMap<>();
+	
+	private final Class<?> jsonClass;						// JsonObject, JsonArray, String, or null for other types
+	private final boolean runtimeCheck;
+	private final boolean live;
+	private final boolean propertyValueSet;
+	
+	private final JsonOperationType valueType;				// null if no value attribute set
+	private final String name;
+	private final String documentKey;						// The key in jsonProperties, for a class member it is className.name
+	private final String propertyKey;						// documentKey, with '#pointer' if a pointer is set
+	private final JsonPointerReader pointer;				// null if no pointer attribute set
+	private final long maxAge;
+	private final long staleWhileRevalidate;
+	
+	private final JsonOperationType defaultValueType;		// null if no default value attribute set
+	private final String defaultValuePropertyKey;
+	
+	private final String injectionClassName;
+	private final String injectionFieldName;
+	
+	
+	// Returns null if the injection point has no @ConfigJson annotation.
+	public static JsonInjectionPlan of(InjectionPoint ip) {
+		
+		JsonInjectionPlan plan = plans.get(ip.getMember());
+		if(plan != null)
+			return plan;
+		
+		ConfigJson configJsonAnn = ip.getAnnotated().getAnnotation(ConfigJson.class);
+		if(configJsonAnn == null)
+			return null;
+		
+		return plans.computeIfAbsent(ip.getMember(), member -> new JsonInjectionPlan(ip, configJsonAnn));
+	}
+	
+	
+	private JsonInjectionPlan(InjectionPoint ip, ConfigJson configJsonAnn) {
+		
+		this.injectionClassName = ip.getMember().getDeclaringClass().getName();
+		this.injectionFieldName = ip.getMember().getName();
+		this.jsonClass = JsonInjectionPlan.resolveJsonClass(ip, injectionClassName, injectionFieldName);
+		this.runtimeCheck = ConfigUtils.runtimeTrueReloadOrPropertiesOtherwise(settings.isRuntimeCheck(), configJsonAnn.runtimeCheck());
+		this.live = configJsonAnn.live();
+		
+		String propertyName = configJsonAnn.property();
+		String jsonFilePath = configJsonAnn.filePath();
+		String jsonUrl = configJsonAnn.url();
+		String jsonClassMember = configJsonAnn.classMember();
+		
+		this.propertyValueSet = propertyName != null && !propertyName.equals("");
+		
+		if(propertyValueSet) {
+			this.valueType = new JsonOperationType(JsonOperationTypeValue.PROPERTY, "property", propertyName);
+			this.name = propertyName;
+		} else if(jsonFilePath != null && !jsonFilePath.equals("")) {
+			this.valueType = new JsonOperationType(JsonOperationTypeValue.FILE, "filePath", jsonFilePath);
+			this.name = jsonFilePath;
+		} else if(jsonUrl != null && !jsonUrl.equals("")) {
+			this.valueType = new JsonOperationType(JsonOperationTypeValue.URL, "url", jsonUrl);
+			this.name = jsonUrl;
+		} else if(jsonClassMember != null && !jsonClassMember.equals("")) {
+			this.valueType = new JsonOperationType(JsonOperationTypeValue.CLASS_MEMBER, "classMember", jsonClassMember, injectionClassName);
+			this.name = jsonClassMember;
+		} else {		// if no attribute is set.
+			this.valueType = null;
+			this.name = null;
+		}
+		this.documentKey = valueType != null && valueType.getValueType() == JsonOperationTypeValue.CLASS_MEMBER ? injectionClassName + "." + name : name;
+		
+		String pointerValue = configJsonAnn.pointer();
+		this.pointer = pointerValue != null && !pointerValue.equals("") ? new JsonPointerReader(pointerValue) : null;
+		this.propertyKey = pointer != null && documentKey != null ? documentKey + "#" + pointerValue : documentKey;
+		this.maxAge = configJsonAnn.maxAge();
+		this.staleWhileRevalidate = configJsonAnn.staleWhileRevalidate();
+		
+		String stringDefaultValue = configJsonAnn.defaultValue();
+		String propertyDefaultValue = configJsonAnn.defaultValueProperty();
+		String fileDefaultValue = configJsonAnn.defaultValueFile();
+		String urlDefaultValue = configJsonAnn.defaultValueUrl();
+		String classMemberDefaultValue = configJsonAnn.defaultValueIsClassMember();
+		
+		if(stringDefaultValue != null && !stringDefaultValue.equals("")) {
+			this.defaultValueType = new JsonOperationType(JsonOperationTypeValue.DEFAULT_VALUE_STRING, "defaultValue", stringDefaultValue);
+		} else if(propertyDefaultValue != null && !propertyDefaultValue.equals("")) {
+			this.defaultValueType = new JsonOperationType(JsonOperationTypeValue.DEFAULT_VALUE_PROPERTY, "defaultValueProperty", propertyDefaultValue);
+		} else if(fileDefaultValue != null && !fileDefaultValue.equals("")) {
+			this.defaultValueType = new JsonOperationType(JsonOperationTypeValue.DEFAULT_VALUE_FILE, "defaultValueFile", fileDefaultValue);
+		} else if(urlDefaultValue != null && !urlDefaultValue.equals("")) {
+			this.defaultValueType = new JsonOperationType(JsonOperationTypeValue.DEFAULT_VALUE_URL, "defaultValueUrl", urlDefaultValue);
+		} else if(classMemberDefaultValue != null && !classMemberDefaultValue.equals("")) {
+			this.defaultValueType = new JsonOperationType(JsonOperationTypeValue.DEFAULT_VALUE_CLASS_MEMBER, "defaultValueIsClassMember", classMemberDefaultValue, injectionClassName);
+		} else {
+			this.defaultValueType = null;
+		}
+		this.defaultValuePropertyKey = defaultValueType == null ? null
+				: defaultValueType.getValueType() == JsonOperationTypeValue.DEFAULT_VALUE_CLASS_MEMBER ? injectionClassName + "." + defaultValueType.getAttributeValue()
+				: defaultValueType.getAttributeValue();
+	}
+	
+	
+	// Checks if there is a generic type, if no returns String
+	private static Class<?> resolveJsonClass(InjectionPoint ip, String injectionClassName, String injectionFieldName) {
+		
+		Type type = ip.getType();
+		if(!(type instanceof ParameterizedType)) {
+			logger.severe("Configurator: No generic parameter provided, can not cast, returning String version. Class: '" + injectionClassName + "', field: '" + injectionFieldName + "'.");
+			return String.class;
+		}
+		
+		Type typeArgument = ((ParameterizedType) type).getActualTypeArguments()[0];
+		if(typeArgument == JsonObject.class || typeArgument == JsonArray.class || typeArgument == String.class)
+			return (Class<?>) typeArgument;
+		return null;
+	}
+	
+	
+	public Class<?> getJsonClass() {
+		return jsonClass;
+	}
+	// Decision made from @ConfiguratorSetup's and the annotation's runtime check.
+	public boolean isRuntimeCheck() {
+		return runtimeCheck;
+	}
+	public RuntimeCheckType getRuntimeCheckType() {
+		return runtimeCheck ? RuntimeCheckType.YES : RuntimeCheckType.NO;
+	}
+	public boolean isLive() {
+		return live;
+	}
+	public boolean isPropertyValueSet() {
+		return propertyValueSet;
+	}
+	public JsonOperationType getValueType() {
+		return valueType;
+	}
+	public String getName() {
+		return name;
+	}
+	public String getDocumentKey() {
+		return documentKey;
+	}
+	public String getPropertyKey() {
+		return propertyKey;
+	}
+	public JsonPointerReader getPointer() {
+		return pointer;
+	}
+	public long getMaxAge() {
+		return maxAge;
+	}
+	public long getStaleWhileRevalidate() {
+		return staleWhileRevalidate;
+	}
+	public JsonOperationType getDefaultValueType() {
+		return defaultValueType;
+	}
+	public String getDefaultValuePropertyKey() {
+		return defaultValuePropertyKey;
+	}
+	public String getInjectionClassName() {
+		return injectionClassName;
+	}
+	public String getInjectionFieldName() {
+		return injectionFieldName;
+	}
+
+}
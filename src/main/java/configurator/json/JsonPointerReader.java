@@ -0,0 +1,160 @@
+package configurator.json;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+import configurator.ConfiguratorException;
+
+// A JSON Pointer (RFC 6901) parsed once. Reads the pointed node from a stream, skipped objects and arrays are never built.
+public class JsonPointerReader {
+	
+	private final String pointer;
+	private final String[] tokens;				// null if the pointer is not valid
+	
+	
+	public JsonPointerReader(String pointer) {
+		this.pointer = pointer;
+		this.tokens = JsonPointerReader.parseTokens(pointer);
+	}
+	
+	
+	public String getPointer() {
+		return pointer;
+	}
+	
+	
+	// Streams to the pointed node and builds only it.
+	public JsonValue read(InputStream is) {
+		
+		checkValid();
+		try (JsonParser parser = Json.createParser(is)) {
+			
+			if(!parser.hasNext())
+				throw new ConfiguratorException("JSON is empty");
+			Event event = parser.next();
+			
+			for(String token : tokens) {
+				if(event == Event.START_OBJECT) {
+					event = JsonPointerReader.moveToMember(parser, token);
+				} else if(event == Event.START_ARRAY) {
+					event = JsonPointerReader.moveToElement(parser, token);
+				} else {
+					event = null;
+				}
+				if(event == null)
+					throw new ConfiguratorException(String.format("JSON Pointer '%s' not found, no '%s' member or element", pointer, token));
+			}
+			
+			return parser.getValue();
+			
+		} catch (JsonException e) {
+			throw new ConfiguratorException(String.format("Error parsing JSON for the pointer '%s', exception: '%s',", pointer, e.getMessage()));
+		}
+	}
+	
+	
+	// For JSON already loaded.
+	public JsonValue read(JsonStructure json) {
+		
+		checkValid();
+		try {
+			return json.getValue(pointer);
+		} catch (JsonException e) {
+			throw new ConfiguratorException(String.format("JSON Pointer '%s' not found, exception: '%s',", pointer, e.getMessage()));
+		}
+	}
+	
+	
+	private void checkValid() {
+		if(tokens == null)
+			throw new ConfiguratorException(String.format("JSON Pointer '%s' is not valid, it must start with '/'", pointer));
+	}
+	
+	
+	// Returns the event of the member's value or null if there is no member with the name. The parser is after START_OBJECT.
+	private static Event moveToMember(JsonParser parser, String name) {
+		
+		while(parser.hasNext()) {
+			Event event = parser.next();
+			if(event == Event.END_OBJECT)
+				return null;
+			
+			boolean found = parser.getString().equals(name);		// KEY_NAME
+			Event valueEvent = parser.next();
+			if(found)
+				return valueEvent;
+			JsonPointerReader.skipValue(parser, valueEvent);
+		}
+		return null;
+	}
+	
+	
+	// Returns the event of the element or null if there is no element with the index. The parser is after START_ARRAY.
+	private static Event moveToElement(JsonParser parser, String index) {
+		
+		int position = JsonPointerReader.parseIndex(index);
+		if(position < 0)
+			return null;
+		
+		for(int i = 0; parser.hasNext(); i++) {
+			Event event = parser.next();
+			if(event == Event.END_ARRAY)
+				return null;
+			if(i == position)
+				return event;
+			JsonPointerReader.skipValue(parser, event);
+		}
+		return null;
+	}
+	
+	
+	private static void skipValue(JsonParser parser, Event event) {
+		if(event == Event.START_OBJECT)
+			parser.skipObject();
+		else if(event == Event.START_ARRAY)
+			parser.skipArray();
+	}
+	
+	
+	// Digits without leading zeros, '-' (after the last element) and anything else never exists.
+	private static int parseIndex(String index) {
+		
+		if(index.isEmpty() || index.length() > 9 || (index.length() > 1 && index.charAt(0) == '0'))
+			return -1;
+		for(int i = 0; i < index.length(); i++) {
+			if(index.charAt(i) < '0' || index.charAt(i) > '9')
+				return -1;
+		}
+		return Integer.parseInt(index);
+	}
+	
+	
+	private static String[] parseTokens(String pointer) {
+		
+		if(pointer.isEmpty())
+			return new String[0];
+		if(pointer.charAt(0) != '/')
+			return null;
+		
+		List<String> tokens = new ArrayList<>();
+		int start = 1;
+		while(true) {
+			int end = pointer.indexOf('/', start);
+			String token = end < 0 ? pointer.substring(start) : pointer.substring(start, end);
+			tokens.add(token.replace("~1", "/").replace("~0", "~"));
+			if(end < 0)
+				break;
+			start = end + 1;
+		}
+		return tokens.toArray(new String[0]);
+	}
+
+}
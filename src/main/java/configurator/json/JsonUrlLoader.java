@@ -0,0 +1,266 @@
+package configurator.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import javax.json.Json;
+import javax.json.JsonReader;
+import javax.json.JsonStructure;
+
+import configurator.ConfiguratorException;
+import configurator.ConfiguratorSettings;
+import configurator.utils.VerboseLogger;
+
+// Downloads JSON and remembers ETag / Last-Modified of every URL. Next downloads are conditional requests,
+// a 304 response returns the JSON parsed before without transferring or parsing the body.
+// Uses connectionTimeout / readTimeout of @ConfiguratorSetup and asks for gzip. Streams are always read to the end and closed,
+// never disconnected, so HttpURLConnection keeps the connection alive and reuses it for the next request to the host.
+public class JsonUrlLoader {
+	
+	private static ConfiguratorSettings settings = ConfiguratorSettings.getInstance();
+	private static VerboseLogger loggerVerbose = settings.getVerboseLogger();
+	
+	private static final int MAX_ASYNC_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+	
+	private static final Map<String, UrlResponse> responses = new ConcurrentHashMap<>();
+	private static volatile ExecutorService asyncExecutor;
+	
+	
+	// The body is streamed into the JSON parser.
+	public static UrlResponse load(String jsonURL) {
+		return JsonUrlLoader.load(jsonURL, true);
+	}
+	
+	
+	// parse false - the body is kept as bytes and parsed on the first getJson() call, used for lazy JSON.
+	public static UrlResponse load(String jsonURL, boolean parse) {
+		loggerVerbose.log(() -> "JSON URL LOADER -> url passed: " + jsonURL);
+		
+		UrlResponse cached = responses.get(jsonURL);
+		int responseCode = 0;
+		
+		try {
+			
+			URL url = new URL(jsonURL);
+			HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+			conn.setConnectTimeout(settings.getConnectionTimout());
+			conn.setReadTimeout(settings.getReadTimout());
+			conn.setRequestProperty("Accept", "application/json");
+			conn.setRequestProperty("Accept-Encoding", "gzip");
+			
+			if(cached != null) {
+				if(cached.etag != null)
+					conn.setRequestProperty("If-None-Match", cached.etag);
+				if(cached.lastModified != null)
+					conn.setRequestProperty("If-Modified-Since", cached.lastModified);
+			}
+			
+			responseCode = conn.getResponseCode();
+			
+			if(responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+				loggerVerbose.log(() -> "JSON URL LOADER -> not modified, url: " + jsonURL);
+				JsonUrlLoader.drain(conn.getErrorStream());
+				return cached;
+			}
+			
+			if(responseCode >= HttpURLConnection.HTTP_BAD_REQUEST) {
+				JsonUrlLoader.drain(conn.getErrorStream());
+				throw new IOException("Server returned HTTP response code: " + responseCode + " for URL: " + jsonURL);
+			}
+			
+			String etag = conn.getHeaderField("ETag");
+			String lastModified = conn.getHeaderField("Last-Modified");
+			boolean gzip = "gzip".equalsIgnoreCase(conn.getContentEncoding());
+			
+			UrlResponse response;
+			try (InputStream is = gzip ? new GZIPInputStream(conn.getInputStream()) : conn.getInputStream()) {
+				if(parse) {
+					response = new UrlResponse(etag, lastModified, JsonUrlLoader.parseBody(jsonURL, is));
+					JsonUrlLoader.drain(is);
+				} else {
+					response = new UrlResponse(etag, lastModified, JsonUrlLoader.readBody(is));
+				}
+			}
+			
+			// Without validators the next request can not be conditional, nothing to remember.
+			if(response.etag != null || response.lastModified != null)
+				responses.put(jsonURL, response);
+			else
+				responses.remove(jsonURL);
+			return response;
+			
+		} catch (ConfiguratorException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new ConfiguratorException(String.format("Error downloading JSON, response status code: '%s', exception: '%s',", responseCode, e.getMessage()));
+		}
+	}
+	
+	
+	// Downloads on a shared pool of daemon threads, the future completes exceptionally with a ConfiguratorException on errors.
+	public static CompletableFuture<UrlResponse> loadAsync(String jsonURL, boolean parse) {
+		return CompletableFuture.supplyAsync(() -> JsonUrlLoader.load(jsonURL, parse), JsonUrlLoader.asyncExecutor());
+	}
+	
+	
+	// A body known from elsewhere (the disk cache) with its validators, the next download of the URL is conditional.
+	public static UrlResponse remember(String jsonURL, String etag, String lastModified, byte[] body) {
+		
+		UrlResponse response = new UrlResponse(etag, lastModified, body);
+		if(etag != null || lastModified != null)
+			responses.put(jsonURL, response);
+		return response;
+	}
+	
+	
+	// Next download of the URL is not conditional.
+	public static void forget(String jsonURL) {
+		responses.remove(jsonURL);
+	}
+	
+	
+	public static synchronized void shutdown() {
+		if(asyncExecutor != null) {
+			asyncExecutor.shutdownNow();
+			asyncExecutor = null;
+		}
+	}
+	
+	
+	private static ExecutorService asyncExecutor() {
+		
+		ExecutorService current = asyncExecutor;
+		if(current == null) {
+			synchronized (JsonUrlLoader.class) {
+				if(asyncExecutor == null) {
+					AtomicInteger count = new AtomicInteger();
+					asyncExecutor = Executors.newFixedThreadPool(MAX_ASYNC_THREADS, runnable -> {
+						Thread thread = new Thread(runnable, "Configurator-http-" + count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+				}
+				current = asyncExecutor;
+			}
+		}
+		return current;
+	}
+	
+	
+	// A body which can not be parsed is not remembered, the next download is not conditional.
+	private static JsonStructure parseBody(String jsonURL, InputStream is) {
+		
+		try (JsonReader reader = Json.createReader(new NonClosingInputStream(is))) {
+			return reader.read();
+		} catch (Exception e) {
+			responses.remove(jsonURL);
+			throw new ConfiguratorException(String.format("Error parsing JSON, exception: '%s',", e.getMessage()));
+		}
+	}
+	
+	
+	private static byte[] readBody(InputStream is) throws IOException {
+		
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while((read = is.read(buffer)) != -1)
+			out.write(buffer, 0, read);
+		return out.toByteArray();
+	}
+	
+	
+	// Reads a stream to the end and closes it, only a fully read connection goes back to the keep-alive cache.
+	private static void drain(InputStream is) {
+		
+		if(is == null)
+			return;
+		try (InputStream in = is) {
+			byte[] buffer = new byte[8192];
+			while(in.read(buffer) != -1);
+		} catch (IOException e) {
+			loggerVerbose.log(() -> "JSON URL LOADER -> can not drain the response, the connection is not reused: " + e.getMessage());
+		}
+	}
+	
+	
+	// The parser closes its stream, the stream is still drained and closed by the loader.
+	private static class NonClosingInputStream extends FilterInputStream {
+		
+		private NonClosingInputStream(InputStream in) {
+			super(in);
+		}
+		
+		@Override
+		public void close() {
+		}
+	}
+	
+	
+	// A downloaded body, parsed once on the first getJson() call, the body is then dropped.
+	public static class UrlResponse {
+		
+		private final String etag;
+		private final String lastModified;
+		private volatile byte[] body;
+		private volatile JsonStructure json;
+		
+		private UrlResponse(String etag, String lastModified, byte[] body) {
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.body = body;
+		}
+		
+		private UrlResponse(String etag, String lastModified, JsonStructure json) {
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.json = json;
+		}
+		
+		public String getEtag() {
+			return etag;
+		}
+		public String getLastModified() {
+			return lastModified;
+		}
+		
+		// The body as downloaded, or the parsed JSON serialized if it was already parsed.
+		public byte[] getBody() {
+			byte[] current = body;
+			return current != null ? current : json.toString().getBytes(StandardCharsets.UTF_8);
+		}
+		
+		public JsonStructure getJson() {
+			
+			JsonStructure current = json;
+			if(current != null)
+				return current;
+			
+			synchronized (this) {
+				if(json == null) {
+					try (JsonReader reader = Json.createReader(new ByteArrayInputStream(body))) {
+						json = reader.read();
+					} catch (Exception e) {
+						throw new ConfiguratorException(String.format("Error parsing JSON, exception: '%s',", e.getMessage()));
+					}
+					body = null;
+				}
+				return json;
+			}
+		}
+	}
+
+}
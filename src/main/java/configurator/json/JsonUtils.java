@@ -1,18 +1,12 @@
 package configurator.json;
 
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
 import java.io.FileInputStream;
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.util.Properties;
 import java.util.logging.Logger;
 
-import javax.enterprise.inject.spi.InjectionPoint;
 import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
@@ -23,6 +17,9 @@ import javax.json.JsonValue;
 import configurator.ConfiguratorException;
 import configurator.ConfiguratorSettings;
 import configurator.enums.RuntimeCheckType;
+import configurator.source.ConfigSourceResolver;
+import configurator.store.ConfigSnapshot;
+import configurator.store.ConfigStore;
 import configurator.typed.LoaderProperties;
 import configurator.utils.ConfigUtils;
 import configurator.utils.VerboseLogger;
@@ -30,50 +27,44 @@ import configurator.utils.VerboseLogger;
 public class JsonUtils {
 	
 	private static ConfiguratorSettings settings = ConfiguratorSettings.getInstance();
-	private static Properties loadedProperties = settings.getLoadedProperties();
-	private static Properties jsonProperties = settings.getJsonProperties();
+	private static ConfigStore store = settings.getStore();
+	private static ConfigSourceResolver sourceResolver = settings.getSourceResolver();
 	private static Logger logger = settings.getLogger();
 	private static VerboseLogger loggerVerbose = settings.getVerboseLogger();
 	
 	
-	// Looks for values: env / system / jsonPropertie / loadedProperties
+	// Looks for values: env / system / other sources / jsonPropertie / loadedProperties / other sources
 	public static Object findJsonPropertyValue(String propToFind, RuntimeCheckType annotationRuntimeCheck) {
-		loggerVerbose.log("PROPERTY FINDER JSON -> find method, key passed: " + propToFind);
+		loggerVerbose.log(() -> "PROPERTY FINDER JSON -> find method, key passed: " + propToFind);
 		
-		String envProperty = System.getenv(propToFind);
-		if(envProperty != null) {
-			loggerVerbose.log("PROPERTY FINDER JSON -> returning from ENV: " + envProperty + ", class: " + envProperty.getClass());
-			return envProperty;
+		String sourceProperty = sourceResolver.findBeforeJsonProperties(propToFind);
+		if(sourceProperty != null) {
+			loggerVerbose.log(() -> "PROPERTY FINDER JSON -> returning from ENV, System or config source: " + sourceProperty + ", class: " + sourceProperty.getClass());
+			return sourceProperty;
 		}
 		
 		
-		String sysProperty = System.getProperty(propToFind);
-		if(sysProperty != null) {
-			loggerVerbose.log("PROPERTY FINDER JSON -> returning from System: " + sysProperty + ", class: " + sysProperty.getClass());
-			return sysProperty;
-		}
-		
-		
-		// if runtime check true reloads property files.
-		if(ConfigUtils.runtimeTrueReloadOrPropertiesOtherwise(settings.isRuntimeCheck(), annotationRuntimeCheck) == true) {
-			loggerVerbose.log("PROPERTY FINDER JSON ->  --- RELOADING PROPERTIES ---");
-			LoaderProperties.loadPropertiesFromFile(settings.getPropertiesPaths());
-			LoaderJsonSetup.loadJsonPropertiesFromPaths(settings.getJsonPropertiesPaths());
+		// if runtime check true reloads property files. Watched files are reloaded in the background.
+		if(ConfigUtils.runtimeTrueReloadOrPropertiesOtherwise(settings.isRuntimeCheck(), annotationRuntimeCheck) == true && settings.isWatchFiles() == false) {
+			LoaderProperties.reloadPropertiesFiles();
+			LoaderJsonSetup.reloadJsonPropertiesFiles();
 			// For file, url and member it is not needed to reload. @ConfigJson reloads needed things.
 		}
 		
 		
-		Object jsonProperty = jsonProperties.get(propToFind);
+		ConfigSnapshot snapshot = store.current();
+		
+		Object jsonProperty = snapshot.getJson(propToFind);
 		if(jsonProperty != null) {
-			loggerVerbose.log("PROPERTY FINDER JSON -> returning from jsonProperties: " + ConfigUtils.displayStringOfLength(jsonProperty.toString(), 30) + ", class: " + jsonProperty.getClass());
+			loggerVerbose.log(() -> "PROPERTY FINDER JSON -> returning from jsonProperties: " + ConfigUtils.displayStringOfLength(snapshot.getJsonString(propToFind), 30) + ", class: " + jsonProperty.getClass());
 			return jsonProperty;
 		}
 		
 		
 		// Always parsed, jsonPropertyFilePath parse, not added to jsonProperties to avoid name clashes
-		Object loadedProperty = loadedProperties.get(propToFind);
+		Object loadedProperty = sourceResolver.findAfterJsonProperties(propToFind);
 		if(loadedProperty != null) {
-			loggerVerbose.log("PROPERTY FINDER JSON -> returning from loadedProperties: " + ConfigUtils.displayStringOfLength(loadedProperty.toString(), 30) + ", class: " + loadedProperty.getClass());
+			loggerVerbose.log(() -> "PROPERTY FINDER JSON -> returning from loadedProperties or config source: " + ConfigUtils.displayStringOfLength(loadedProperty.toString(), 30) + ", class: " + loadedProperty.getClass());
 			return loadedProperty;
 		}
 		
@@ -85,12 +76,12 @@ public class JsonUtils {
 	
 
 	
-	public static Object parseJsonFromString(InjectionPoint ip, String jsonString, JsonOperationType type, Class<?> jsonClass) {
-		loggerVerbose.log("JSON STRING PARSER -> json String passed: " + ConfigUtils.displayStringOfLength(jsonString, 80) + ", for: " + type.getAttributeType());
+	public static Object parseJsonFromString(JsonInjectionPlan plan, String jsonString, JsonOperationType type, Class<?> jsonClass) {
+		loggerVerbose.log(() -> "JSON STRING PARSER -> json String passed: " + ConfigUtils.displayStringOfLength(jsonString, 80) + ", for: " + type.getAttributeType());
 		
 		String injectionAnnotationType = type.getAnnotationType();
-		String injectionClassName = ip.getMember().getDeclaringClass().getName();
-		String injectionFieldName = ip.getMember().getName();
+		String injectionClassName = plan.getInjectionClassName();
+		String injectionFieldName = plan.getInjectionFieldName();
 		
 		JsonValue parsedValue = null;
 		
@@ -129,7 +120,7 @@ public class JsonUtils {
 	
 	
 	public static Object loaderJsonFromString(String jsonString) {
-		loggerVerbose.log("JSON STRING LOADER -> json String passed: " + ConfigUtils.displayStringOfLength(jsonString, 80));
+		loggerVerbose.log(() -> "JSON STRING LOADER -> json String passed: " + ConfigUtils.displayStringOfLength(jsonString, 80));
 		
 		try(JsonReader reader = Json.createReader(new StringReader(jsonString))) {
 			return reader.read();
@@ -141,9 +132,9 @@ public class JsonUtils {
 	
 	
 	public static Object loaderJsonFromFile(String jsonFilePath) {
-		loggerVerbose.log("JSON FILE LOADER -> json path passed: " + jsonFilePath);
+		loggerVerbose.log(() -> "JSON FILE LOADER -> json path passed: " + jsonFilePath);
 		
-		try(JsonReader reader = Json.createReader(new FileInputStream(jsonFilePath))) {
+		try(JsonReader reader = Json.createReader(new BufferedInputStream(new FileInputStream(jsonFilePath)))) {
 			
 			return reader.read(); 
 			
@@ -153,126 +144,65 @@ public class JsonUtils {
 	}
 	
 	
-	public static String loaderJsonFromUrl(String jsonURL) {
-		loggerVerbose.log("JSON URL LOADER -> url passed: " + jsonURL);
+	// Streams the file to the pointed node, the rest of the document is not built.
+	public static Object loaderJsonFromFile(String jsonFilePath, JsonPointerReader pointer) {
+		loggerVerbose.log(() -> "JSON FILE LOADER -> json path passed: " + jsonFilePath + ", pointer: " + pointer.getPointer());
 		
-		int responseCode = 0;
-		StringBuilder downloadedJson = new StringBuilder();
+		try(InputStream is = new BufferedInputStream(new FileInputStream(jsonFilePath))) {
+			return pointer.read(is);
+		} catch (IOException e) {
+			throw new ConfiguratorException(String.format("Error loading JSON, exception: '%s',", e.getMessage()));
+		}
+	}
+	
+	
+	// Returns the pointed node of JSON already loaded, a String is parsed first.
+	public static Object applyJsonPointer(Object loadedJson, JsonPointerReader pointer) {
 		
-		try {
-			
-			URL url = new URL(jsonURL);
-			
-			HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-	        
-	        responseCode = conn.getResponseCode();
-			
-	        BufferedReader in = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-	        String inputLine;
-
-	        while ((inputLine = in.readLine()) != null) {
-	        	downloadedJson.append(inputLine);
-	        }
-			in.close();
-			
-		} catch (Exception e) {
-			throw new ConfiguratorException(String.format("Error downloading JSON, response status code: '%s', exception: '%s',", responseCode, e.getMessage() ));
-		} 
+		if(loadedJson == null)
+			return null;
 		
-		return downloadedJson.toString();
+		Object json = loadedJson instanceof JsonStructure ? loadedJson : JsonUtils.loaderJsonFromString(loadedJson.toString());
+		if(!(json instanceof JsonStructure))
+			throw new ConfiguratorException(String.format("JSON Pointer '%s' can not be used for a JSON value which is not an object or an array", pointer.getPointer()));
+		return pointer.read((JsonStructure) json);
+	}
+	
+	
+	// Conditional download, a not modified URL returns JSON parsed before, see JsonUrlLoader.
+	public static Object loaderJsonFromUrl(String jsonURL) {
+		return JsonUrlLoader.load(jsonURL).getJson();
 	}
 	
 	
+	// The member is resolved once, see ClassMemberAccessor.
 	public static Object loaderJsonFromClassMember(String memberName, String classNameToInstantiate) {
-		loggerVerbose.log("JSON CLASS MEMBER LOADER -> member name: " + memberName + ", class to instantiate: " + classNameToInstantiate);
-		
-		Class<?> clazz = null;
-		
-		Object newInstance;
-		try {
-			clazz = Class.forName(classNameToInstantiate);
-			newInstance = clazz.newInstance();
-		} catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
-
-			throw new ConfiguratorException(String.format("Can not instantiate class: '%s'", clazz.getName()));
-			
-		}
-		
-		Method[] declaredMethods = newInstance.getClass().getDeclaredMethods();
-		Field[] declaredFields = newInstance.getClass().getDeclaredFields();
-		
-		Method method = null;
-		for(Method m : declaredMethods) {
-			if (m.getName().equals(memberName)) {
-				method = m;
-				break;
-			}
-		}
-		
-		Field field = null;
-		for(Field f : declaredFields) {
-			if (f.getName().equals(memberName)) {
-				field = f;
-				break;
-			}
-		}
-		
-		if(field == null && method == null) {
-			throw new ConfiguratorException(String.format("Can not find the field or method named: '%s' in the class: '%s'", memberName, clazz.getName()));
-		}
-		
-		Object loadedMemberObject = null;
-		if(method != null) {
-			
-			boolean accessible = method.isAccessible();
-			method.setAccessible(true);
-			
-			try {
-				loadedMemberObject = method.invoke(newInstance);
-			} catch (IllegalArgumentException | IllegalAccessException | InvocationTargetException e) {
-				throw new ConfiguratorException(String.format("Can not invoke the method: '%s' in the class: '%s'", memberName, clazz.getName()));
-			} finally {
-				method.setAccessible(accessible);
-			}
-			
-		} else {
-			
-			boolean accessible = field.isAccessible();
-			field.setAccessible(true);
-			
-			try {
-				loadedMemberObject = field.get(newInstance);
-			} catch (IllegalArgumentException | IllegalAccessException e) {
-				throw new ConfiguratorException(String.format("Can not get the value of the field: '%s' in the class: '%s'", memberName, clazz.getName()));
-			} finally {
-				field.setAccessible(accessible);
-			}
-			
-		}
-		
-		return loadedMemberObject;
+		loggerVerbose.log(() -> "JSON CLASS MEMBER LOADER -> member name: " + memberName + ", class to instantiate: " + classNameToInstantiate);
 		
+		return ClassMemberAccessor.of(memberName, classNameToInstantiate).load();
 	}
 	
 	
-	// When no runtime check it checks if props contains a key and it is a proper type,
+	// When no runtime check it checks if jsonProperties contain a key and it is a proper type,
 	// If the value has a proper class returns it, if not and a String tries to parse it. Otherwise null.
-	public static Object checkPropertiesIfObjectExistsAndProperJsonType(Properties properties, String key, Class<?> clazz) {
-		loggerVerbose.log("CHECK JSON IN PROPS AND TYPE -> props contains key?: " + properties.containsKey(key));
+	public static Object checkPropertiesIfObjectExistsAndProperJsonType(ConfigStore store, String key, Class<?> clazz) {
 		
-		if(properties.containsKey(key)) {
-			
-			Object value = properties.get(key);
+		ConfigSnapshot snapshot = store.current();
+		Object value = snapshot.getJson(key);
+		loggerVerbose.log(() -> "CHECK JSON IN PROPS AND TYPE -> props contains key?: " + (value != null));
+		
+		if(value != null) {
 			
-			// The value is String class
-			if (value != null && clazz == String.class) {
-				loggerVerbose.log("CHECK JSON IN PROPS AND TYPE -> String class needed, returning object as a String: " + value + ", class: " + value.getClass());
-				return value.toString();
+			// The value is String class, serialized once per value.
+			if (clazz == String.class) {
+				String text = snapshot.getJsonString(key);
+				loggerVerbose.log(() -> "CHECK JSON IN PROPS AND TYPE -> String class needed, returning object as a String: " + text + ", class: " + value.getClass());
+				return text;
 			}
 			
 			// The value is the needed class.
 			if (clazz.isInstance(value)) {
-				loggerVerbose.log("CHECK JSON IN PROPS AND TYPE -> proper class found, returning object: " + value + ", class: " + value.getClass());
+				loggerVerbose.log(() -> "CHECK JSON IN PROPS AND TYPE -> proper class found, returning object: " + value + ", class: " + value.getClass());
 				return value;
 			}
 			
@@ -281,21 +211,21 @@ public class JsonUtils {
 			// If not a proper class and it is a String we try to parse it.
 			if (value.getClass() != clazz && value.getClass() == String.class) {
 				// try to parse and check the type again, if ok return, if not proceed
-				loggerVerbose.log("CHECK JSON IN PROPS AND TYPE -> value is not a proper class but it is a String: " + value + ", class: " + value.getClass());
+				loggerVerbose.log(() -> "CHECK JSON IN PROPS AND TYPE -> value is not a proper class but it is a String: " + value + ", class: " + value.getClass());
 				try (JsonReader reader = Json.createReader(new StringReader((String)value)) ) {
 					
 					JsonStructure json = reader.read();
-					loggerVerbose.log("CHECK JSON IN PROPS AND TYPE -> parsed string: " + json + ", class: " + json.getClass());
+					loggerVerbose.log(() -> "CHECK JSON IN PROPS AND TYPE -> parsed string: " + json + ", class: " + json.getClass());
 					
 					// If we get an object of a class we need replace it in properties to have a proper one for next time.  
 					if (json != null && clazz.isInstance(json)) {
-						boolean replaced = properties.replace(key, value, json);
-						loggerVerbose.log("CHECK JSON IN PROPS AND TYPE -> parsed json has a proper class, replacing it in properties, Operation successful? : " + replaced);
+						boolean replaced = store.replaceJson(key, value, json);
+						loggerVerbose.log(() -> "CHECK JSON IN PROPS AND TYPE -> parsed json has a proper class, replacing it in properties, Operation successful? : " + replaced);
 						return json;
 					}
 
 				} catch (Exception e) {
-					loggerVerbose.log("CHECK JSON IN PROPS AND TYPE -> exception parsing String: " + e.getMessage());
+					loggerVerbose.log(() -> "CHECK JSON IN PROPS AND TYPE -> exception parsing String: " + e.getMessage());
 					return null;
 				}
 			}
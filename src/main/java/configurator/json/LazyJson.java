@@ -0,0 +1,97 @@
+package configurator.json;
+
+import java.io.ByteArrayInputStream;
+import java.util.logging.Logger;
+
+import javax.json.Json;
+import javax.json.JsonReader;
+import javax.json.JsonStructure;
+
+import configurator.ConfiguratorException;
+import configurator.ConfiguratorSettings;
+import configurator.store.LazyValue;
+
+// Raw JSON kept in jsonProperties with lazyJson set on @ConfiguratorSetup, parsed on the first access.
+// ConfigSnapshot.getJson(key) returns the parsed value, the bytes are dropped after parsing.
+public class LazyJson implements LazyValue {
+	
+	private static ConfiguratorSettings settings = ConfiguratorSettings.getInstance();
+	private static Logger logger = settings.getLogger();
+	
+	private final String source;					// For error messages, e.g. the file path.
+	private byte[] content;							// Guarded by this, null after parsing.
+	private volatile JsonStructure parsed;
+	private volatile String error;
+	
+	
+	private LazyJson(String source, byte[] content) {
+		this.source = source;
+		this.content = content;
+	}
+	
+	
+	// Only checks the content looks like a JSON object or array, returns null if not.
+	public static LazyJson of(String source, byte[] content) {
+		
+		int first = 0;
+		while(first < content.length && Character.isWhitespace(content[first]))
+			first++;
+		int last = content.length - 1;
+		while(last > first && Character.isWhitespace(content[last]))
+			last--;
+		
+		if(last <= first)
+			return null;
+		if(!(content[first] == '{' && content[last] == '}') && !(content[first] == '[' && content[last] == ']'))
+			return null;
+		
+		return new LazyJson(source, content);
+	}
+	
+	
+	// Parsed once, other threads wait for the first one. A parsing error is reported on every access.
+	@Override
+	public JsonStructure get() {
+		
+		JsonStructure json = parsed;
+		if(json == null && error == null) {
+			synchronized (this) {
+				if(parsed == null && error == null)
+					parse();
+				json = parsed;
+			}
+		}
+		
+		if(json == null) {
+			if(settings.isAllowDeploymentWithExceptions() == true) {
+				return null;
+			} else {
+				throw new ConfiguratorException(error);
+			}
+		}
+		return json;
+	}
+	
+	
+	private void parse() {
+		
+		try(JsonReader reader = Json.createReader(new ByteArrayInputStream(content))) {
+			parsed = reader.read();
+		} catch (Exception e) {
+			error = String.format("Error parsing lazily loaded JSON from '%s', exception: %s", source, e.getMessage());
+			logger.severe("Configurator: " + error);
+		}
+		content = null;
+	}
+	
+	
+	public boolean isParsed() {
+		return parsed != null;
+	}
+	
+	@Override
+	public String toString() {
+		return parsed != null ? parsed.toString() : "LazyJson [source=" + source + ", parsed=false]";
+	}
+
+}
@@ -1,85 +1,53 @@
 package configurator.json;
 
-import java.util.Properties;
+import java.util.concurrent.Callable;
 import java.util.logging.Logger;
 
-import javax.enterprise.inject.spi.InjectionPoint;
+import javax.json.JsonStructure;
 import javax.json.JsonValue;
 
 import configurator.ConfiguratorException;
 import configurator.ConfiguratorSettings;
 import configurator.TypedProperty;
-import configurator.annotations.ConfigJson;
 import configurator.enums.JsonOperationTypeValue;
 import configurator.enums.RuntimeCheckType;
-import configurator.utils.ConfigUtils;
+import configurator.store.ConfigSnapshot;
+import configurator.store.ConfigStore;
+import configurator.utils.SingleFlight;
 import configurator.utils.VerboseLogger;
 
 @SuppressWarnings({"rawtypes", "unchecked"})
 public class LoaderJson {
 	
 	private static ConfiguratorSettings settings = ConfiguratorSettings.getInstance();
-	private static Properties jsonProperties = settings.getJsonProperties();
+	private static ConfigStore store = settings.getStore();
 	private static Logger logger = settings.getLogger();
 	private static VerboseLogger loggerVerbose = settings.getVerboseLogger();
+	private static SingleFlight singleFlight = settings.getSingleFlight();
 	
 	
-	public static TypedProperty loadJson(InjectionPoint ip, Class<?> jsonClass) {
+	public static TypedProperty loadJson(JsonInjectionPlan plan) {
 		
-		ConfigJson configJsonAnn = ip.getAnnotated().getAnnotation(ConfigJson.class);
+		JsonOperationType type = plan.getValueType();
 		
-		String propertyName = configJsonAnn.property();
-		String jsonFilePath = configJsonAnn.filePath();
-		String jsonUrl = configJsonAnn.url();
-		String jsonClassMember = configJsonAnn.classMember();
-		
-		String name = null;
-		Object json = null;
-		Object defaultValue = null; 
-		JsonOperationType type = null;
-		
-		if(propertyName != null && !propertyName.equals("")) {
-			loggerVerbose.log("PROPERTY -> json type passed: " + jsonClass.getSimpleName() + ", property: " + propertyName);
-			type = JsonOperationType.createPropertyType(propertyName);
-			name = propertyName;
-		
-		} else if(jsonFilePath != null && !jsonFilePath.equals("")) {
-			loggerVerbose.log("FILE_PATH -> json type passed: " + jsonClass.getSimpleName() + ", jsonFilePath: " + jsonFilePath);
-			type = JsonOperationType.createFilePathType(jsonFilePath);
-			name = jsonFilePath;
-			
-		} else if(jsonUrl != null && !jsonUrl.equals("")) {
-			loggerVerbose.log("URL -> json type passed: " + jsonClass.getSimpleName() + ", jsonURL: " + jsonUrl);
-			type = JsonOperationType.createUrlType(jsonUrl);
-			name = jsonUrl;
-			
-		} else if(jsonClassMember != null && !jsonClassMember.equals("")) {
-			loggerVerbose.log("CLASS MEMBER -> json type passed: " + jsonClass.getSimpleName() + ", member name: " + jsonClassMember);
-			type = JsonOperationType.createClassMemberType(jsonClassMember);
-			Class<?> classToInstantiate = ip.getMember().getDeclaringClass();
-			type.setAdditionalInfo(classToInstantiate.getName());
-			name = jsonClassMember;
-			
-		} else { 		// if no attribute is set.
-			return LoaderJson.noAttributeSetNullJson(ip, jsonClass);
+		if(type == null) { 		// if no attribute is set.
+			return LoaderJson.noAttributeSetNullJson(plan);
 		}
+		loggerVerbose.log(() -> type.getAttributeType().toUpperCase() + " -> json type passed: " + plan.getJsonClass().getSimpleName() + ", " + type.getAttributeType() + ": " + plan.getName());
 		
-		json = LoaderJson.getJsonValue(ip, type, jsonClass);
-		defaultValue = LoaderJson.getJsonDefaultValue(ip, jsonClass);
-		return new TypedProperty(name, json, defaultValue);
+		Object json = LoaderJson.getJsonValue(plan);
+		Object defaultValue = LoaderJson.getJsonDefaultValue(plan);
+		return new TypedProperty(plan.getName(), json, defaultValue);
 	}
 	
 	
 	
 	// Used when no attribute set (property, filePath, url, or classMember) / for testing default values
-	private static TypedProperty noAttributeSetNullJson(InjectionPoint ip, Class<?> jsonClass) {
-		
-		String injectionClassName = ip.getMember().getDeclaringClass().getName();
-		String injectionFieldName = ip.getMember().getName();
+	private static TypedProperty noAttributeSetNullJson(JsonInjectionPlan plan) {
 		
-		Object parsedDefaultValue =  LoaderJson.getJsonDefaultValue(ip, jsonClass);
+		Object parsedDefaultValue =  LoaderJson.getJsonDefaultValue(plan);
 		
-		String excMessage = String.format("Any of the @ConfigJson annotation's attributes (property, filePath, url, or classMember) is not set. Class: '%s', field name: '%s'", injectionClassName, injectionFieldName);
+		String excMessage = String.format("Any of the @ConfigJson annotation's attributes (property, filePath, url, or classMember) is not set. Class: '%s', field name: '%s'", plan.getInjectionClassName(), plan.getInjectionFieldName());
 		if(settings.isAllowDeploymentWithExceptions() == true) {
 			logger.severe("Configurator: " + excMessage);
 			return new TypedProperty(null, null, parsedDefaultValue);
@@ -91,23 +59,24 @@ public class LoaderJson {
 	
 	
 	// Loads and then parse to the type or null - props, file, url, memeber
-	public static Object getJsonValue(InjectionPoint ip, JsonOperationType type, Class<?> jsonClass) {
-		loggerVerbose.log("GET JSON VALUE -> for type: " + type.getValueType().getValue());
+	public static Object getJsonValue(JsonInjectionPlan plan) {
 		
-		ConfigJson configJsonAnn = ip.getAnnotated().getAnnotation(ConfigJson.class);
+		JsonOperationType type = plan.getValueType();
+		Class<?> jsonClass = plan.getJsonClass();
+		loggerVerbose.log(() -> "GET JSON VALUE -> for type: " + type.getValueType().getValue());
 		
 		JsonOperationTypeValue typeValue = type.getValueType();
-		String name = type.getAttributeValue();
-		RuntimeCheckType runtimeCheckAnn = configJsonAnn.runtimeCheck();
+		String name = plan.getName();
+		RuntimeCheckType runtimeCheck = plan.getRuntimeCheckType();
 		
 		// Try from properties first. The key is the name or for a class members it is className.name
-		String propertyKey = !type.getAttributeType().equals("classMember") ? name : (ip.getMember().getDeclaringClass().getName() + "." + name);
+		String propertyKey = plan.getPropertyKey();
 		// Use the value from properties if key exists and proper type, otherwise continue loading, even if should use properties (rt check false).
-		if(ConfigUtils.runtimeTrueReloadOrPropertiesOtherwise(settings.isRuntimeCheck(), runtimeCheckAnn) == false) {
+		if(plan.isRuntimeCheck() == false || LoaderJson.isWatchedFile(typeValue, name)) {
 			
-			Object propertyValue = JsonUtils.checkPropertiesIfObjectExistsAndProperJsonType(jsonProperties, propertyKey, jsonClass);
+			Object propertyValue = JsonUtils.checkPropertiesIfObjectExistsAndProperJsonType(store, propertyKey, jsonClass);
 			if(propertyValue != null) {
-				loggerVerbose.log("GET JSON VALUE |"+ type.getAttributeType() +"| -> NO LOADING!, Returning json from Properties.");
+				loggerVerbose.log(() -> "GET JSON VALUE |"+ type.getAttributeType() +"| -> NO LOADING!, Returning json from Properties.");
 				return propertyValue;
 			}
 			
@@ -115,24 +84,43 @@ public class LoaderJson {
 		
 		// Loading if runtime true or not found in jsonProperties
 		Object loadedJson = null;
+		JsonPointerReader pointer = plan.getPointer();
+		boolean pointerApplied = false;
 		
 		try {
 			
-			if(typeValue == JsonOperationTypeValue.PROPERTY) {
-				loadedJson = JsonUtils.findJsonPropertyValue(name, runtimeCheckAnn);
+			// A whole document already in jsonProperties (preloaded files, URLs or members) is not loaded again for a pointer.
+			if(pointer != null && typeValue != JsonOperationTypeValue.PROPERTY && (plan.isRuntimeCheck() == false || LoaderJson.isWatchedFile(typeValue, name))) {
+				Object document = store.current().getJson(plan.getDocumentKey());
+				if(document instanceof JsonStructure) {
+					loggerVerbose.log(() -> "GET JSON VALUE |"+ type.getAttributeType() +"| -> NO LOADING!, pointer applied to json from Properties.");
+					loadedJson = pointer.read((JsonStructure) document);
+					pointerApplied = true;
+				}
+			}
+			
+			if(pointerApplied == true) {
+				// Found in a document from jsonProperties.
+			} else if(typeValue == JsonOperationTypeValue.PROPERTY) {
+				loadedJson = JsonUtils.findJsonPropertyValue(name, runtimeCheck);
 			} else if (typeValue == JsonOperationTypeValue.FILE) {
-				loadedJson = JsonUtils.loaderJsonFromFile(name);
+				// Threads injecting the same file at once share one read, the key includes the pointer.
+				loadedJson = singleFlight.load(propertyKey, () -> pointer != null ? JsonUtils.loaderJsonFromFile(name, pointer) : JsonUtils.loaderJsonFromFile(name));
 			} else if(typeValue == JsonOperationTypeValue.URL) {
-				loadedJson = JsonUtils.loaderJsonFromUrl(name);
+				loadedJson = LoaderJson.loadCached(plan, () -> singleFlight.load(name, () -> JsonUtils.loaderJsonFromUrl(name)));
 			} else if(typeValue == JsonOperationTypeValue.CLASS_MEMBER) { 
 				String classNameToInstantiate = type.getAdditionalInfo();
-				loadedJson = JsonUtils.loaderJsonFromClassMember(name, classNameToInstantiate);
+				loadedJson = LoaderJson.loadCached(plan, () -> JsonUtils.loaderJsonFromClassMember(name, classNameToInstantiate));
 			}
 			
+			// Files are streamed to the pointed node, other sources are loaded whole.
+			if(pointer != null && pointerApplied == false && typeValue != JsonOperationTypeValue.FILE)
+				loadedJson = JsonUtils.applyJsonPointer(loadedJson, pointer);
+			
 		} catch (Exception e) {
 			String excMessage = String.format("%s for the %s loader. %s`s attribute: '%s = %s', class: '%s', field name: '%s'.",
 					e.getMessage(), type.getValueType().getValue(), type.getAnnotationType(), type.getAttributeType(),
-					type.getAttributeValue(), ip.getMember().getDeclaringClass().getName(), ip.getMember().getName());
+					type.getAttributeValue(), plan.getInjectionClassName(), plan.getInjectionFieldName());
 			if(settings.isAllowDeploymentWithExceptions() == true) {
 				logger.severe("Configurator: " + excMessage);
 				return null;
@@ -141,7 +129,8 @@ public class LoaderJson {
 			}
 
 		}
-		loggerVerbose.log("GET JSON VALUE -> after loading, class needed: " + jsonClass.getSimpleName() + ", loaded value: " + loadedJson+ ", class: " + (loadedJson == null? "null": loadedJson.getClass()));
+		if(loggerVerbose.isEnabled())
+			loggerVerbose.log("GET JSON VALUE -> after loading, class needed: " + jsonClass.getSimpleName() + ", loaded value: " + loadedJson+ ", class: " + (loadedJson == null? "null": loadedJson.getClass()));
 		
 		Object parsedJson = null;
 		
@@ -150,20 +139,20 @@ public class LoaderJson {
 			return null;													// loadedJson is a JSON object, String is needed
 		} else if(loadedJson instanceof JsonValue && jsonClass == String.class) {
 			loggerVerbose.log("GET JSON VALUE -> value is a JSON object, String needed, returning object.toString().");
-			parsedJson = loadedJson.toString();								// if proper class, except String which needs structure check.
+			parsedJson = LoaderJson.toJsonString(loadedJson, name);			// if proper class, except String which needs structure check.
 		} else if(jsonClass.isInstance(loadedJson) && !(loadedJson instanceof String)) {
 			loggerVerbose.log("GET JSON VALUE -> value is a proper type, returning.");
 			parsedJson = loadedJson;				
 		} else {
 			loggerVerbose.log("GET JSON VALUE -> value is not a proper type or String (for value as String needs structure check), parsing.");
 			
-			Object parsedObj = JsonUtils.parseJsonFromString(ip, loadedJson.toString(), type, jsonClass);
-			loggerVerbose.log("GET JSON VALUE -> parsed obj: " + parsedObj + ", class: " + (parsedObj == null? "null": parsedObj.getClass()));
+			Object parsedObj = JsonUtils.parseJsonFromString(plan, loadedJson.toString(), type, jsonClass);
+			loggerVerbose.log(() -> "GET JSON VALUE -> parsed obj: " + parsedObj + ", class: " + (parsedObj == null? "null": parsedObj.getClass()));
 			
 			if (parsedObj == null) {
 				return null;
 			} else if (jsonClass.isInstance(parsedObj)) {
-				loggerVerbose.log("GET JSON VALUE -> parsed obj is proper type: " + parsedObj + ", class: " + (parsedObj == null? "null": parsedObj.getClass()));
+				loggerVerbose.log(() -> "GET JSON VALUE -> parsed obj is proper type: " + parsedObj + ", class: " + (parsedObj == null? "null": parsedObj.getClass()));
 				parsedJson = parsedObj;				// parsed json is a proper type
 			} else if (jsonClass == String.class) {	// after parsing we know the structure is ok
 				loggerVerbose.log("GET JSON VALUE -> type is String returning as toString()");
@@ -174,15 +163,17 @@ public class LoaderJson {
 		// add to jsonProperties only if not already there and not JsonOperationTypeValue.PROPERTY (props are ENV, Sys so cant be added)
 		if(parsedJson != null && !(typeValue == JsonOperationTypeValue.PROPERTY)) {
 			// Just info 												// no key already so it is loaded 1st time.
-			if (!jsonProperties.containsKey(propertyKey)) {
-				loggerVerbose.log("GET JSON VALUE |"+ type.getAttributeType() +"| -> Added to jsonProperties, key: " + propertyKey + ", value: " + loadedJson + ", class: " + loadedJson.getClass());
+			if (!store.current().getJson().containsKey(propertyKey)) {
+				if(loggerVerbose.isEnabled())
+					loggerVerbose.log("GET JSON VALUE |"+ type.getAttributeType() +"| -> Added to jsonProperties, key: " + propertyKey + ", value: " + loadedJson + ", class: " + loadedJson.getClass());
 			} else {													// runtime check true, otherwise it would use props
-				loggerVerbose.log("GET JSON VALUE |"+ type.getAttributeType() +"| -> Replaced in jsonProperties, key: " + propertyKey + ", value: " + loadedJson + loadedJson + ", class: " + loadedJson.getClass());
+				if(loggerVerbose.isEnabled())
+					loggerVerbose.log("GET JSON VALUE |"+ type.getAttributeType() +"| -> Replaced in jsonProperties, key: " + propertyKey + ", value: " + loadedJson + loadedJson + ", class: " + loadedJson.getClass());
 			}
-			jsonProperties.put(propertyKey, parsedJson);
+			store.putJson(propertyKey, parsedJson);
 			return parsedJson;
 		} else if(typeValue == JsonOperationTypeValue.PROPERTY) {		// property not added to jsonProperties
-			loggerVerbose.log("GET JSON VALUE |"+ type.getAttributeType() +"| -> value from properties , not added to jsonProperties");
+			loggerVerbose.log(() -> "GET JSON VALUE |"+ type.getAttributeType() +"| -> value from properties , not added to jsonProperties");
 			return parsedJson;
 		} else {
 			return null;
@@ -192,60 +183,39 @@ public class LoaderJson {
 	
 	
 
-	public static Object getJsonDefaultValue(InjectionPoint ip, Class<?> jsonClass) {
-		
-		ConfigJson configJsonAnn = ip.getAnnotated().getAnnotation(ConfigJson.class);
-		
-		String stringDefaultValue = configJsonAnn.defaultValue();
-		String propertyDefaultValue = configJsonAnn.defaultValueProperty();
-		String fileDefaultValue = configJsonAnn.defaultValueFile();
-		String urlDefaultValue = configJsonAnn.defaultValueUrl();
-		String classMemberDefaultValue = configJsonAnn.defaultValueIsClassMember();
-		
-		JsonOperationType type = null;
-		
-		if(stringDefaultValue != null && !stringDefaultValue.equals("")) {
-			type = JsonOperationType.createDefaultValueType(stringDefaultValue);
-		} else if(propertyDefaultValue != null && !propertyDefaultValue.equals("")) {
-			type = JsonOperationType.createPropertyDefaultValueType(propertyDefaultValue);
-		} else if(fileDefaultValue != null && !fileDefaultValue.equals("")) {
-			type = JsonOperationType.createFileDefaultValueType(fileDefaultValue);
-		} else if(urlDefaultValue != null && !urlDefaultValue.equals("")) {
-			type = JsonOperationType.createUrlDefaultValueType(urlDefaultValue);
-		} else if(classMemberDefaultValue != null && !classMemberDefaultValue.equals("")) {
-			type = JsonOperationType.createClassMemberDefaultValueType(classMemberDefaultValue);
-			Class<?> classToInstantiate = ip.getMember().getDeclaringClass();
-			type.setAdditionalInfo(classToInstantiate.getName());
-		} else {
+	public static Object getJsonDefaultValue(JsonInjectionPlan plan) {
+		
+		if(plan.getDefaultValueType() == null)
 			return null;
-		}
 		
-		return LoaderJson.loadDefaultValues(ip, type, jsonClass);
+		return LoaderJson.loadDefaultValues(plan);
 	}
 	
 	
 	
-	private static Object loadDefaultValues(InjectionPoint ip, JsonOperationType type, Class<?> jsonClass) {
-		loggerVerbose.log("DEFULT VALUE LOADER JSON -> for type: " + type.getValueType().getValue());
+	private static Object loadDefaultValues(JsonInjectionPlan plan) {
+		
+		JsonOperationType type = plan.getDefaultValueType();
+		Class<?> jsonClass = plan.getJsonClass();
+		loggerVerbose.log(() -> "DEFULT VALUE LOADER JSON -> for type: " + type.getValueType().getValue());
 		
-		ConfigJson configJsonAnn = ip.getAnnotated().getAnnotation(ConfigJson.class);
-		RuntimeCheckType runtimeCheckAnn = configJsonAnn.runtimeCheck();
+		RuntimeCheckType runtimeCheck = plan.getRuntimeCheckType();
 		
 		JsonOperationTypeValue typeValue = type.getValueType();
 		String name = type.getAttributeValue();
 		
 		
 		// Try from properties first. The key is the name or for a class members it is className.name
-		String propertyKey = !type.getAttributeType().equals("defaultValueIsClassMember") ? name : (ip.getMember().getDeclaringClass().getName() + "." + name);
+		String propertyKey = plan.getDefaultValuePropertyKey();
 		
-		loggerVerbose.log("DEFULT VALUE LOADER JSON -> propertyKey: " + propertyKey);
+		loggerVerbose.log(() -> "DEFULT VALUE LOADER JSON -> propertyKey: " + propertyKey);
 		
 		// Use from properties if the key exists and proper type, otherwise continue loading, even if should use properties (rt check false).
-		if(ConfigUtils.runtimeTrueReloadOrPropertiesOtherwise(settings.isRuntimeCheck(), runtimeCheckAnn) == false) {
+		if(plan.isRuntimeCheck() == false || LoaderJson.isWatchedFile(typeValue, name)) {
 			
-			Object propertyValue = JsonUtils.checkPropertiesIfObjectExistsAndProperJsonType(jsonProperties, propertyKey, jsonClass);
+			Object propertyValue = JsonUtils.checkPropertiesIfObjectExistsAndProperJsonType(store, propertyKey, jsonClass);
 			if(propertyValue != null) {
-				loggerVerbose.log("DEFULT VALUE LOADER JSON |"+ type.getAttributeType() +"| -> NO LOADING!, Returning json from Properties.");
+				loggerVerbose.log(() -> "DEFULT VALUE LOADER JSON |"+ type.getAttributeType() +"| -> NO LOADING!, Returning json from Properties.");
 				return propertyValue;
 			}
 			
@@ -260,13 +230,12 @@ public class LoaderJson {
 				loadedJsonDefaultValue = JsonUtils.loaderJsonFromString(name);
 			} else if(typeValue == JsonOperationTypeValue.DEFAULT_VALUE_PROPERTY) {		// null, json obj
 				// if property value and runtime check true - dont reload, value will. Otherwise use annotation's runtime check
-				if ((configJsonAnn.property() != null && !configJsonAnn.property().equals("")) &&
-						ConfigUtils.runtimeTrueReloadOrPropertiesOtherwise(settings.isRuntimeCheck(), runtimeCheckAnn) == true) {
+				if (plan.isPropertyValueSet() == true && plan.isRuntimeCheck() == true) {
 					loggerVerbose.log("DefVal - properties value true and runtime true - no reloading, value does this");
 					loadedJsonDefaultValue = JsonUtils.findJsonPropertyValue(name, RuntimeCheckType.NO);
 				} else {
 					loggerVerbose.log("DefVal - no properties value or runtime false, uses annotation runtime");
-					loadedJsonDefaultValue = JsonUtils.findJsonPropertyValue(name, runtimeCheckAnn);
+					loadedJsonDefaultValue = JsonUtils.findJsonPropertyValue(name, runtimeCheck);
 				}
 				
 			} else if(typeValue == JsonOperationTypeValue.DEFAULT_VALUE_FILE) {			// null, String
@@ -281,7 +250,7 @@ public class LoaderJson {
 		} catch (Exception e) {
 			String excMessage = String.format("%s for the %s loader. %s`s attribute: '%s = %s', class: '%s', field name: '%s'.",
 					e.getMessage(), type.getValueType().getValue(), type.getAnnotationType(), type.getAttributeType(),
-					type.getAttributeValue(), ip.getMember().getDeclaringClass().getName(), ip.getMember().getName());
+					type.getAttributeValue(), plan.getInjectionClassName(), plan.getInjectionFieldName());
 			if(settings.isAllowDeploymentWithExceptions() == true) {
 				logger.severe("Configurator: " + excMessage);
 				return null;
@@ -290,7 +259,8 @@ public class LoaderJson {
 			}
 
 		}
-		loggerVerbose.log("DEFULT VALUE LOADER JSON -> after loading, class needed: " + jsonClass.getSimpleName() + ", loaded value: " + loadedJsonDefaultValue+ ", class: " + (loadedJsonDefaultValue == null? "null": loadedJsonDefaultValue.getClass()));
+		if(loggerVerbose.isEnabled())
+			loggerVerbose.log("DEFULT VALUE LOADER JSON -> after loading, class needed: " + jsonClass.getSimpleName() + ", loaded value: " + loadedJsonDefaultValue+ ", class: " + (loadedJsonDefaultValue == null? "null": loadedJsonDefaultValue.getClass()));
 		
 		Object parsedJson = null;
 		
@@ -299,20 +269,20 @@ public class LoaderJson {
 			return null;													// loadedJson is a JSON obj and String is needed
 		} else if(loadedJsonDefaultValue instanceof JsonValue && jsonClass == String.class) {
 			loggerVerbose.log("DEFULT VALUE LOADER JSON -> value is a JSON object, String needed, returning object.toString().");
-			parsedJson = loadedJsonDefaultValue.toString();					// if proper class, except String which needs structure check.
+			parsedJson = LoaderJson.toJsonString(loadedJsonDefaultValue, name);	// if proper class, except String which needs structure check.
 		} else if(jsonClass.isInstance(loadedJsonDefaultValue) && !(loadedJsonDefaultValue instanceof String)) {
 			loggerVerbose.log("DEFULT VALUE LOADER JSON -> value is a proper type, returning.");
 			parsedJson = loadedJsonDefaultValue;				
 		} else {
 			loggerVerbose.log("DEFULT VALUE LOADER JSON -> value is not a proper type or String (for value as String needs structure check), parsing.");
 			
-			Object parsedObj = JsonUtils.parseJsonFromString(ip, loadedJsonDefaultValue.toString(), type, jsonClass);
-			loggerVerbose.log("DEFULT VALUE LOADER JSON -> parsed obj: " + parsedObj + ", class: " + (parsedObj == null? "null": parsedObj.getClass()));
+			Object parsedObj = JsonUtils.parseJsonFromString(plan, loadedJsonDefaultValue.toString(), type, jsonClass);
+			loggerVerbose.log(() -> "DEFULT VALUE LOADER JSON -> parsed obj: " + parsedObj + ", class: " + (parsedObj == null? "null": parsedObj.getClass()));
 			
 			if (parsedObj == null) {
 				return null;
 			} else if (jsonClass.isInstance(parsedObj)) {
-				loggerVerbose.log("DEFULT VALUE LOADER JSON -> parsed obj is proper type: " + parsedObj + ", class: " + (parsedObj == null? "null": parsedObj.getClass()));
+				loggerVerbose.log(() -> "DEFULT VALUE LOADER JSON -> parsed obj is proper type: " + parsedObj + ", class: " + (parsedObj == null? "null": parsedObj.getClass()));
 				parsedJson = parsedObj;				// parsed json is a proper type
 			} else if (jsonClass == String.class) {	// after parsing we know the structure is ok
 				loggerVerbose.log("DEFULT VALUE LOADER JSON -> type is String returning as toString()");
@@ -323,15 +293,17 @@ public class LoaderJson {
 		// add to jsonProperties only if not there and not JsonOperationTypeValue.DEFAULT_VALUE_PROPERTY (props are ENV, Sys so cant be added)
 		if(parsedJson != null && !(typeValue == JsonOperationTypeValue.DEFAULT_VALUE_PROPERTY)) {
 			// Just info 												// no key already so it is loaded 1st time.
-			if (!jsonProperties.containsKey(propertyKey)) {
-				loggerVerbose.log("DEFULT VALUE LOADER JSON |"+ type.getAttributeType() +"| -> Added to jsonProperties, key: " + propertyKey + ", value: " + loadedJsonDefaultValue + ", class: " + loadedJsonDefaultValue.getClass());
+			if (!store.current().getJson().containsKey(propertyKey)) {
+				if(loggerVerbose.isEnabled())
+					loggerVerbose.log("DEFULT VALUE LOADER JSON |"+ type.getAttributeType() +"| -> Added to jsonProperties, key: " + propertyKey + ", value: " + loadedJsonDefaultValue + ", class: " + loadedJsonDefaultValue.getClass());
 			} else {													// runtime check true, otherwise it would use props
-				loggerVerbose.log("DEFULT VALUE LOADER JSON |"+ type.getAttributeType() +"| -> Replaced in jsonProperties, key: " + propertyKey + ", value: " + loadedJsonDefaultValue + ", class: " + loadedJsonDefaultValue.getClass());
+				if(loggerVerbose.isEnabled())
+					loggerVerbose.log("DEFULT VALUE LOADER JSON |"+ type.getAttributeType() +"| -> Replaced in jsonProperties, key: " + propertyKey + ", value: " + loadedJsonDefaultValue + ", class: " + loadedJsonDefaultValue.getClass());
 			}
-			jsonProperties.put(propertyKey, parsedJson);
+			store.putJson(propertyKey, parsedJson);
 			return parsedJson;
 		} else if(typeValue == JsonOperationTypeValue.DEFAULT_VALUE_PROPERTY) {			// property not added to jsonProperties
-			loggerVerbose.log("DEFULT VALUE LOADER JSON |"+ type.getAttributeType() +"| -> default value from properties , not added to jsonProperties");
+			loggerVerbose.log(() -> "DEFULT VALUE LOADER JSON |"+ type.getAttributeType() +"| -> default value from properties , not added to jsonProperties");
 			return parsedJson;
 		} else {
 			return null;
@@ -339,4 +311,31 @@ public class LoaderJson {
 		
 	}
 	
+	
+	// With maxAge set a value is reused and refreshed in the background, only an expired one is loaded on this thread.
+	private static Object loadCached(JsonInjectionPlan plan, Callable<Object> loader) throws Exception {
+		
+		if(plan.getMaxAge() <= 0)
+			return loader.call();
+		return settings.getRefreshCache().get(plan.getDocumentKey(), plan.getMaxAge(), plan.getStaleWhileRevalidate(), loader);
+	}
+	
+	
+	// JSON from jsonProperties (found by a property name) uses the String serialized once per value, other JSON is serialized.
+	private static String toJsonString(Object json, String key) {
+		
+		ConfigSnapshot snapshot = store.current();
+		if(key != null && snapshot.getJson(key) == json)
+			return snapshot.getJsonString(key);
+		return json.toString();
+	}
+	
+	
+	// Preloaded files watched in the background are always up to date in jsonProperties, no need to reload them.
+	private static boolean isWatchedFile(JsonOperationTypeValue typeValue, String path) {
+		return settings.isWatchFiles() == true
+				&& (typeValue == JsonOperationTypeValue.FILE || typeValue == JsonOperationTypeValue.DEFAULT_VALUE_FILE)
+				&& settings.getJsonFilePaths().contains(path);
+	}
+	
 }
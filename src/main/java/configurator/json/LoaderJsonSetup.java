@@ -1,11 +1,18 @@
 package configurator.json;
 
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
-import java.util.HashSet;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 import javax.json.Json;
@@ -14,7 +21,13 @@ import javax.json.JsonValue;
 
 import configurator.ConfiguratorException;
 import configurator.ConfiguratorSettings;
+import configurator.json.JsonUrlLoader.UrlResponse;
+import configurator.json.UrlDiskCache.CachedUrl;
+import configurator.store.ConfigStore;
 import configurator.utils.ConfigUtils;
+import configurator.utils.FileBuffers;
+import configurator.utils.FileBuffers.ByteBufferInputStream;
+import configurator.utils.FileChangeTracker;
 import configurator.utils.VerboseLogger;
 
 
@@ -23,104 +36,289 @@ public class LoaderJsonSetup {
 	private static final String GENERIC_ERROR_MSG = "Error parsing JSON for the %s loader. @ConfiguratorSetup`s attribute: '%s = %s', exception: %s";
 	
 	private static ConfiguratorSettings settings = ConfiguratorSettings.getInstance();
-	private static Properties jsonProperties = settings.getJsonProperties();
+	private static ConfigStore store = settings.getStore();
 	private static Logger logger = settings.getLogger();
 	private static VerboseLogger loggerVerbose = settings.getVerboseLogger();
 	
+	private static FileChangeTracker fileTracker = new FileChangeTracker();
+	private static FileChangeTracker jsonFileTracker = new FileChangeTracker();
+	// Last parsed JSON values of every file, reapplied in order when any of them changes.
+	private static Map<String, Map<String, Object>> jsonPropertiesByPath = new ConcurrentHashMap<>();
 	
-	public static void loadJsonPropertiesFromPaths(HashSet<String> jsonPaths) {
-		loggerVerbose.log("LOADER_PROPERTIES_JSON -> json props size: " + jsonPaths.size() + ", paths: " + jsonPaths);
+	
+	// Runtime check reload. If another thread is reloading or the minimum reload interval has not passed, JSON properties loaded before are used.
+	public static void reloadJsonPropertiesFiles() {
+		
+		boolean reloaded = settings.getReloadCoordinator().reload("jsonPropertyFilePaths", () -> LoaderJsonSetup.loadJsonPropertiesFromPaths(settings.getJsonPropertiesPaths()));
+		loggerVerbose.log(() -> "PROPERTY FINDER JSON -> --- RELOADING JSON PROPERTIES --- " + (reloaded ? "reloaded" : "skipped, reloading or reloaded recently"));
+	}
+	
+	
+	// Only new or changed files are read and parsed, if nothing changed jsonProperties are not touched.
+	public static void loadJsonPropertiesFromPaths(Collection<String> jsonPaths) {
+		loggerVerbose.log(() -> "LOADER_PROPERTIES_JSON -> json props size: " + jsonPaths.size() + ", paths: " + jsonPaths);
+		
+		boolean changed = false;
 		
 		for(String path : jsonPaths) {
-			
-			if (path == null || path.equals(""))	// default is "";
-				continue;
-			
-			Properties props = new Properties();
-			
-			try (InputStream is = new FileInputStream(path)) {
+			if(LoaderJsonSetup.readJsonPropertiesFile(path) == true)
+				changed = true;
+		}
+		
+		if(changed == false) {
+			loggerVerbose.log("LOADER_PROPERTIES_JSON -> no file changed, nothing to load");
+			return;
+		}
+		
+		LoaderJsonSetup.applyJsonProperties(jsonPaths);
+	}
+	
+	
+	// Reads and parses one file if it changed, returns true if it did. Safe to call for different files in parallel.
+	public static boolean readJsonPropertiesFile(String path) {
+		
+		if (path == null || path.equals(""))	// default is "";
+			return false;
+		
+		Properties props = new Properties();
+		
+		try {
+			ByteBuffer content = fileTracker.readBufferIfChanged(path);
+			if(content == null)
+				return false;
+			try (InputStream is = new ByteBufferInputStream(content)) {
 				props.load(is);
-			} catch (IOException e) {
-				String excMessage = String.format("Error loading JSON for the properties file loader. @ConfiguratorSetup`s attribute: 'jsonPropertyFilePaths = %s', exception: %s", path, e.getMessage());
-				if(settings.isAllowDeploymentWithExceptions() == true) {		// Propery cant be parsed, null or bad structure.
-					logger.severe("Configurator: " + excMessage);
-				} else {
-					throw new ConfiguratorException(excMessage);
-				}
 			}
+		} catch (IOException | IllegalArgumentException e) {
+			fileTracker.forget(path);
+			String excMessage = String.format("Error loading JSON for the properties file loader. @ConfiguratorSetup`s attribute: 'jsonPropertyFilePaths = %s', exception: %s", path, e.getMessage());
+			if(settings.isAllowDeploymentWithExceptions() == true) {		// Propery cant be parsed, null or bad structure.
+				logger.severe("Configurator: " + excMessage);
+				return false;
+			} else {
+				throw new ConfiguratorException(excMessage);
+			}
+		}
+		
+		Map<String, Object> parsedProps = new HashMap<>();
+		
+		for(String o : props.stringPropertyNames()) {
 			
-			for(Object o : props.keySet()) {
-				
-				JsonOperationType type = JsonOperationType.createJsonPropertiesLoaderType(path, (String)o);
-				Object parseJsonFromString = LoaderJsonSetup.parseJsonFromString((String)props.get(o), type);
-				
-				if(parseJsonFromString != null) {
-					loggerVerbose.log("LOADER_PROPERTIES_JSON -> parse from properties successful, parsed: " + ConfigUtils.displayStringOfLength(parseJsonFromString.toString(), 80) + ", class: " + parseJsonFromString.getClass());
-					jsonProperties.put(o, parseJsonFromString);
-				}
+			JsonOperationType type = JsonOperationType.createJsonPropertiesLoaderType(path, o);
+			Object parseJsonFromString = settings.isLazyJson() == true
+					? LoaderJsonSetup.lazyJsonFromBytes(props.getProperty(o).getBytes(StandardCharsets.UTF_8), type)
+					: LoaderJsonSetup.parseJsonFromString(props.getProperty(o), type);
+			
+			if(parseJsonFromString != null) {
+				loggerVerbose.log(() -> "LOADER_PROPERTIES_JSON -> parse from properties successful, parsed: " + ConfigUtils.displayStringOfLength(parseJsonFromString.toString(), 80) + ", class: " + parseJsonFromString.getClass());
+				parsedProps.put(o, parseJsonFromString);
 			}
 		}
+		
+		jsonPropertiesByPath.put(path, parsedProps);
+		return true;
 	}
 	
 	
-	public static void loadJsonFromFiles(HashSet<String> jsonFiles) {
-		loggerVerbose.log("LOADER_FILES_JSON -> json files size: " + jsonFiles.size() + ", files: " + jsonFiles);
+	// Next read of the file parses it even if it did not change.
+	public static void forgetJsonPropertiesFile(String path) {
+		fileTracker.forget(path);
+	}
+	
+	
+	// Puts values of the files read before in jsonProperties, a file later in the order overrides earlier ones.
+	public static void applyJsonProperties(Collection<String> jsonPaths) {
+		
+		// Built aside and swapped in at once, readers see either old or new values.
+		Map<String, Object> newJsonProperties = new HashMap<>();
+		for(String path : jsonPaths) {
+			Map<String, Object> parsedProps = path == null ? null : jsonPropertiesByPath.get(path);
+			if(parsedProps != null)
+				newJsonProperties.putAll(parsedProps);
+		}
+		store.putAllJson(newJsonProperties);
+	}
+	
+	
+	// Next read of the file parses it even if it did not change.
+	public static void forgetJsonFile(String path) {
+		jsonFileTracker.forget(path);
+	}
+	
+	
+	// Only new or changed files are read and parsed.
+	public static void loadJsonFromFiles(Collection<String> jsonFiles) {
+		loggerVerbose.log(() -> "LOADER_FILES_JSON -> json files size: " + jsonFiles.size() + ", files: " + jsonFiles);
 		
 		for(String path : jsonFiles) {
+			Object json = LoaderJsonSetup.readJsonFile(path);
+			if(json != null)
+				store.putJson(path, json);
+		}
+	}
+	
+	
+	// Returns parsed JSON of the file or null if it did not change or can not be loaded. Safe to call for different files in parallel.
+	public static Object readJsonFile(String path) {
+		
+		if (path == null || path.equals(""))	// default is "";
+			return null;
+		
+		JsonOperationType type = JsonOperationType.createJsonFilesLoaderType(path);
+		
+		ByteBuffer content = null;
+		try {
+			content = jsonFileTracker.readBufferIfChanged(path);
+		} catch (IOException e) {
+			jsonFileTracker.forget(path);
+			String excMessage = String.format(GENERIC_ERROR_MSG, type.getValueType().getValue(), type.getAttributeType(), type.getAttributeValue(), e.getMessage());
+			if(settings.isAllowDeploymentWithExceptions() == true) {
+				logger.severe("Configurator: " + excMessage);
+				return null;
+			} else {
+				throw new ConfiguratorException(excMessage);
+			}
+		}
+		
+		if(content == null) {
+			loggerVerbose.log(() -> "LOADER_FILES_JSON -> file not changed: " + path);
+			return null;
+		}
 			
-			if (path == null || path.equals(""))	// default is "";
-				continue;
+		Object parseJsonFromFile = settings.isLazyJson() == true ? LoaderJsonSetup.lazyJsonFromBytes(FileBuffers.toArray(content), type) : LoaderJsonSetup.parseJsonFromBuffer(content, type);
 			
-			JsonOperationType type = JsonOperationType.createJsonFilesLoaderType(path);
-				
-			Object parseJsonFromFile = LoaderJsonSetup.parseJsonFromFile(path, type);
-				
-			if(parseJsonFromFile != null) {
-				loggerVerbose.log("LOADER_FILES_JSON -> parse from files successful, parsed: " + ConfigUtils.displayStringOfLength(parseJsonFromFile.toString(), 80) + ", class: " + parseJsonFromFile.getClass());
-				jsonProperties.put(path, parseJsonFromFile);
-			} 
+		if(parseJsonFromFile != null) {
+			loggerVerbose.log(() -> "LOADER_FILES_JSON -> parse from files successful, parsed: " + ConfigUtils.displayStringOfLength(parseJsonFromFile.toString(), 80) + ", class: " + parseJsonFromFile.getClass());
 		}
-		
+		return parseJsonFromFile;
 	}
 		
 	
-	public static void loadJsonFromUrls(HashSet<String> jsonUrls) {
-		loggerVerbose.log("LOADER_URLS_JSON -> json URLs size: " + jsonUrls.size() + ", urls: " + jsonUrls);
+	public static void loadJsonFromUrls(Collection<String> jsonUrls) {
+		loggerVerbose.log(() -> "LOADER_URLS_JSON -> json URLs size: " + jsonUrls.size() + ", urls: " + jsonUrls);
 		
 		for(String url : jsonUrls) {
+			Object json = LoaderJsonSetup.readJsonUrl(url);
+			if(json != null)
+				store.putJson(url, json);
+		}
+	}
+	
+	
+	// Returns parsed JSON downloaded from the URL or null if it can not be loaded. Safe to call for different URLs in parallel.
+	public static Object readJsonUrl(String url) {
+		
+		if (url == null || url.equals(""))
+			return null;
+		
+		JsonOperationType type = JsonOperationType.createJsonUrlsLoaderType(url);
 			
-			if (url == null || url.equals(""))
-				continue;
+		UrlResponse response = null;
+		try {
+			response = JsonUrlLoader.load(url, settings.isLazyJson() == false);
+		} catch (Exception e) {
+			return LoaderJsonSetup.urlDownloadFailed(e, type);
+		}
+		return LoaderJsonSetup.jsonFromUrlResponse(response, type);
+	}
+	
+	
+	// Same as readJsonUrl, downloaded on the pool of JsonUrlLoader. Completes exceptionally instead of throwing.
+	public static CompletableFuture<Object> readJsonUrlAsync(String url) {
+		
+		if (url == null || url.equals(""))
+			return CompletableFuture.completedFuture(null);
+		
+		JsonOperationType type = JsonOperationType.createJsonUrlsLoaderType(url);
+		
+		return JsonUrlLoader.loadAsync(url, settings.isLazyJson() == false).handle((response, e) -> e != null
+				? LoaderJsonSetup.urlDownloadFailed(e instanceof CompletionException ? e.getCause() : e, type)
+				: LoaderJsonSetup.jsonFromUrlResponse(response, type));
+	}
+	
+	
+	private static Object urlDownloadFailed(Throwable e, JsonOperationType type) {
+		
+		String excMessage = String.format("%s for the %s loader. @ConfiguratorSetup`s attribute: '%s = %s'", e.getMessage(), type.getValueType().getValue(), type.getAttributeType(), type.getAttributeValue());
+		if(settings.isAllowDeploymentWithExceptions() == true) {
+			logger.severe("Configurator: " + excMessage);
+			return null;
+		} else {
+			throw new ConfiguratorException(excMessage);
+		}
+	}
+	
+	
+	private static Object jsonFromUrlResponse(UrlResponse response, JsonOperationType type) {
+		loggerVerbose.log(() -> "LOADER_URLS_JSON -> JSON downloaded successfully, url: '" + type.getAttributeValue() +"'");
+		
+		Object parseJsonFromString = settings.isLazyJson() == true
+				? LoaderJsonSetup.lazyJsonFromBytes(response.getBody(), type)
+				: LoaderJsonSetup.parseJsonFromResponse(response, type);
+		if(parseJsonFromString != null) {
+			loggerVerbose.log(() -> "LOADER_URLS_JSON -> JSON String parsed successfully: " + ConfigUtils.displayStringOfLength(parseJsonFromString.toString(), 80) + ", class: " + parseJsonFromString.getClass());
+			UrlDiskCache.write(type.getAttributeValue(), response);
+		}
+		return parseJsonFromString;
+	}
+	
+	
+	// JSON of the URL from the disk cache, null if there is no usable entry. Its ETag / Last-Modified make the next download conditional.
+	public static Object readCachedJsonUrl(String url) {
+		
+		CachedUrl cached = UrlDiskCache.read(url);
+		if(cached == null)
+			return null;
+		
+		JsonOperationType type = JsonOperationType.createJsonUrlsLoaderType(url);
+		UrlResponse response = JsonUrlLoader.remember(url, cached.getEtag(), cached.getLastModified(), cached.getBody());
+		try {
+			Object json = settings.isLazyJson() == true
+					? LoaderJsonSetup.lazyJsonFromBytes(cached.getBody(), type)
+					: LoaderJsonSetup.parseJsonFromResponse(response, type);
+			if(json != null)
+				loggerVerbose.log(() -> "LOADER_URLS_JSON -> JSON served from the disk cache, url: '" + url + "', fetched at: " + new Date(cached.getFetchedAt()));
+			return json;
+		} catch (ConfiguratorException e) {
+			return null;		// downloaded instead
+		}
+	}
+	
+	
+	// Downloads the URL in the background and replaces JSON served from the disk cache. If the URL is down or returns bad JSON
+	// the cached JSON stays and one warning is logged, the deployment is already done so nothing is thrown.
+	public static void revalidateJsonUrl(String url) {
+		
+		JsonUrlLoader.loadAsync(url, settings.isLazyJson() == false).whenComplete((response, e) -> {
 			
-			JsonOperationType type = JsonOperationType.createJsonUrlsLoaderType(url);
-				
-			String loadedJsonFromUrl = null;
-			try {
-				loadedJsonFromUrl = JsonUtils.loaderJsonFromUrl(url);
-				loggerVerbose.log("LOADER_URLS_JSON -> JSON String downloaded successfully, url: '" + url +"', value: " + ConfigUtils.displayStringOfLength(loadedJsonFromUrl, 80));
-			} catch (Exception e) {
-				String excMessage = String.format("%s for the %s loader. @ConfiguratorSetup`s attribute: '%s = %s'", e.getMessage(), type.getValueType().getValue(), type.getAttributeType(), type.getAttributeValue());
-				if(settings.isAllowDeploymentWithExceptions() == true) {
-					logger.severe("Configurator: " + excMessage);
-					continue;
-				} else {
-					throw new ConfiguratorException(excMessage);
+			Object json = null;
+			String error = null;
+			if(e != null) {
+				error = (e instanceof CompletionException && e.getCause() != null ? e.getCause() : e).getMessage();
+			} else {
+				try {
+					json = settings.isLazyJson() == true ? LazyJson.of(url, response.getBody()) : response.getJson();
+					if(json == null)
+						error = "the response is not a JSON object or array";
+				} catch (RuntimeException ex) {
+					JsonUrlLoader.forget(url);
+					error = ex.getMessage();
 				}
 			}
 			
-			if(loadedJsonFromUrl != null) {
-				Object parseJsonFromString = LoaderJsonSetup.parseJsonFromString(loadedJsonFromUrl, type);
-				if(parseJsonFromString != null) {
-					loggerVerbose.log("LOADER_URLS_JSON -> JSON String parsed successfully: " + ConfigUtils.displayStringOfLength(parseJsonFromString.toString(), 80) + ", class: " + parseJsonFromString.getClass());
-					jsonProperties.put(url, parseJsonFromString);
-				}
-			} 
-		}
+			if(error != null) {
+				logger.warning("Configurator: Revalidation of the URL '" + url + "' failed, JSON from the disk cache is used, exception: " + error);
+				return;
+			}
+			UrlDiskCache.write(url, response);
+			settings.getStore().putJson(url, json);
+			loggerVerbose.log(() -> "LOADER_URLS_JSON -> revalidated, url: '" + url + "'");
+		});
 	}
 	
 	
-	public static void loadJsonFromMembers(HashSet<String> jsonMembers, Class<?> clazz) {
-		loggerVerbose.log("LOADER_CLASS_MEMBERS_JSON -> json class members size: " + jsonMembers.size() + ", members: " + jsonMembers);
+	public static void loadJsonFromMembers(Collection<String> jsonMembers, Class<?> clazz) {
+		loggerVerbose.log(() -> "LOADER_CLASS_MEMBERS_JSON -> json class members size: " + jsonMembers.size() + ", members: " + jsonMembers);
 		
 		for(String member : jsonMembers) {
 			
@@ -146,18 +344,20 @@ public class LoaderJsonSetup {
 			
 			
 			if(loadedJsonFromMember == null) {
-				loggerVerbose.log("LOADER_CLASS_MEMBERS_JSON ->  member '"+ member +"' is null");
+				loggerVerbose.log(() -> "LOADER_CLASS_MEMBERS_JSON ->  member '"+ member +"' is null");
 				continue;
 			} else if (!(loadedJsonFromMember instanceof JsonValue)) {							// Not a proper type, trying to parse a String
-				loggerVerbose.log("LOADER_CLASS_MEMBERS_JSON -> member '"+ member +"' is not a proper type, trying to parse as a String");
+				loggerVerbose.log(() -> "LOADER_CLASS_MEMBERS_JSON -> member '"+ member +"' is not a proper type, trying to parse as a String");
 				loadedJsonFromMember = LoaderJsonSetup.parseJsonFromString(loadedJsonFromMember.toString(), type);
 				if(loadedJsonFromMember != null) {
-					loggerVerbose.log("LOADER_CLASS_MEMBERS_JSON -> member '"+ member +"' parsed successfully, class: " + loadedJsonFromMember.getClass() + ", parsed: " + ConfigUtils.displayStringOfLength(loadedJsonFromMember.toString(), 80));
-					jsonProperties.put(propertyName, loadedJsonFromMember);
+					if(loggerVerbose.isEnabled())
+						loggerVerbose.log("LOADER_CLASS_MEMBERS_JSON -> member '"+ member +"' parsed successfully, class: " + loadedJsonFromMember.getClass() + ", parsed: " + ConfigUtils.displayStringOfLength(loadedJsonFromMember.toString(), 80));
+					store.putJson(propertyName, loadedJsonFromMember);
 				}
 			} else {
-				loggerVerbose.log("LOADER_CLASS_MEMBERS_JSON -> member '"+ member +"' loaded successfully, class: " + loadedJsonFromMember.getClass() + ", loaded: " + ConfigUtils.displayStringOfLength(loadedJsonFromMember.toString(), 80));
-				jsonProperties.put(propertyName, loadedJsonFromMember);
+				if(loggerVerbose.isEnabled())
+					loggerVerbose.log("LOADER_CLASS_MEMBERS_JSON -> member '"+ member +"' loaded successfully, class: " + loadedJsonFromMember.getClass() + ", loaded: " + ConfigUtils.displayStringOfLength(loadedJsonFromMember.toString(), 80));
+				store.putJson(propertyName, loadedJsonFromMember);
 			}
 			
 		}
@@ -185,9 +385,25 @@ public class LoaderJsonSetup {
 		}
 	}
 	
-	private static Object parseJsonFromFile(String file, JsonOperationType type) {
+	private static Object parseJsonFromResponse(UrlResponse response, JsonOperationType type) {
+		
+		try {
+			return response.getJson();
+		} catch (ConfiguratorException e) {
+			JsonUrlLoader.forget(type.getAttributeValue());
+			String excMessage = String.format(GENERIC_ERROR_MSG, type.getValueType().getValue(), type.getAttributeType(), type.getAttributeValue(), e.getMessage());
+			if(settings.isAllowDeploymentWithExceptions() == true) {
+				logger.severe("Configurator: " + excMessage);
+				return null;
+			} else {
+				throw new ConfiguratorException(excMessage);
+			}
+		}
+	}
+	
+	private static Object parseJsonFromBuffer(ByteBuffer content, JsonOperationType type) {
 		
-		try(JsonReader reader = Json.createReader(new FileInputStream(file))) {
+		try(JsonReader reader = Json.createReader(new ByteBufferInputStream(content))) {
 			
 			return reader.read();
 			
@@ -202,4 +418,21 @@ public class LoaderJsonSetup {
 		}
 	}
 	
+	// Only a cheap check at startup, the value is parsed on the first use.
+	private static Object lazyJsonFromBytes(byte[] content, JsonOperationType type) {
+		
+		LazyJson lazyJson = LazyJson.of(type.getAttributeValue(), content);
+		if(lazyJson != null)
+			return lazyJson;
+		
+		String additional = type.getAdditionalInfo() == null ? "" : ", property name: '" + type.getAdditionalInfo() + "'";
+		String excMessage = String.format("Error parsing JSON for the %s loader. @ConfiguratorSetup`s attribute: '%s = %s'%s, exception: %s", type.getValueType().getValue(), type.getAttributeType(), type.getAttributeValue(), additional, "not a JSON object or array");
+		if(settings.isAllowDeploymentWithExceptions() == true) {
+			logger.severe("Configurator: " + excMessage);
+			return null;
+		} else {
+			throw new ConfiguratorException(excMessage);
+		}
+	}
+	
 }
@@ -0,0 +1,174 @@
+package configurator.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import configurator.ConfiguratorSettings;
+import configurator.json.JsonUrlLoader.UrlResponse;
+import configurator.utils.VerboseLogger;
+
+// Last known good JSON of every URL in the urlCacheDirectory of @ConfiguratorSetup. A body is stored in <sha-256 of the URL>.json,
+// its URL, checksum, ETag / Last-Modified and fetch time in <sha-256 of the URL>.properties. Both are written to temporary files
+// and moved in place, so neither file is ever half written. A crash between the two moves leaves a new body with the old metadata,
+// the checksum then does not match and the entry is not used.
+public class UrlDiskCache {
+	
+	private static ConfiguratorSettings settings = ConfiguratorSettings.getInstance();
+	private static Logger logger = settings.getLogger();
+	private static VerboseLogger loggerVerbose = settings.getVerboseLogger();
+	
+	private static final String FORMAT_VERSION = "1";
+	
+	
+	public static boolean isEnabled() {
+		String directory = settings.getUrlCacheDirectory();
+		return directory != null && !directory.equals("");
+	}
+	
+	
+	// Returns the cached body of the URL, or null if there is none or it does not match its checksum.
+	public static CachedUrl read(String url) {
+		
+		if(UrlDiskCache.isEnabled() == false)
+			return null;
+		
+		try {
+			String name = UrlDiskCache.sha256(url.getBytes(StandardCharsets.UTF_8));
+			Path bodyFile = UrlDiskCache.directory().resolve(name + ".json");
+			Path metaFile = UrlDiskCache.directory().resolve(name + ".properties");
+			if(Files.exists(metaFile) == false || Files.exists(bodyFile) == false)
+				return null;
+			
+			Properties meta = new Properties();
+			try (InputStream is = Files.newInputStream(metaFile)) {
+				meta.load(is);
+			}
+			byte[] body = Files.readAllBytes(bodyFile);
+			
+			if(!FORMAT_VERSION.equals(meta.getProperty("version")) || !url.equals(meta.getProperty("url")) || !UrlDiskCache.sha256(body).equals(meta.getProperty("checksum"))) {
+				logger.warning("Configurator: Cached JSON of the URL '" + url + "' is not valid and is not used, cache file: '" + bodyFile + "'");
+				return null;
+			}
+			
+			loggerVerbose.log(() -> "URL DISK CACHE -> read url: " + url + ", fetched at: " + meta.getProperty("fetchedAt"));
+			return new CachedUrl(body, meta.getProperty("etag"), meta.getProperty("lastModified"), Long.parseLong(meta.getProperty("fetchedAt", "0")));
+			
+		} catch (IOException | RuntimeException e) {
+			logger.warning("Configurator: Cached JSON of the URL '" + url + "' can not be read, exception: " + e.getMessage());
+			return null;
+		}
+	}
+	
+	
+	// A body equal to the cached one is not written again. Failures are only logged, the cache is an optimization.
+	public static void write(String url, UrlResponse response) {
+		
+		if(UrlDiskCache.isEnabled() == false)
+			return;
+		
+		try {
+			byte[] body = response.getBody();
+			String checksum = UrlDiskCache.sha256(body);
+			String name = UrlDiskCache.sha256(url.getBytes(StandardCharsets.UTF_8));
+			Path directory = Files.createDirectories(UrlDiskCache.directory());
+			Path bodyFile = directory.resolve(name + ".json");
+			Path metaFile = directory.resolve(name + ".properties");
+			
+			CachedUrl cached = UrlDiskCache.read(url);
+			if(cached != null && UrlDiskCache.sha256(cached.getBody()).equals(checksum))
+				return;
+			
+			Properties meta = new Properties();
+			meta.setProperty("version", FORMAT_VERSION);
+			meta.setProperty("url", url);
+			meta.setProperty("checksum", checksum);
+			meta.setProperty("fetchedAt", String.valueOf(System.currentTimeMillis()));
+			if(response.getEtag() != null)
+				meta.setProperty("etag", response.getEtag());
+			if(response.getLastModified() != null)
+				meta.setProperty("lastModified", response.getLastModified());
+			
+			Path bodyTemp = Files.createTempFile(directory, name, ".tmp");
+			try {
+				Files.write(bodyTemp, body);
+				Files.move(bodyTemp, bodyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(bodyTemp);		// Left only if writing or moving failed.
+			}
+			
+			Path metaTemp = Files.createTempFile(directory, name, ".tmp");
+			try {
+				try (OutputStream os = Files.newOutputStream(metaTemp)) {
+					meta.store(os, "Configurator URL cache");
+				}
+				Files.move(metaTemp, metaFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(metaTemp);
+			}
+			
+			loggerVerbose.log(() -> "URL DISK CACHE -> written url: " + url + ", file: " + bodyFile);
+			
+		} catch (IOException | RuntimeException e) {
+			logger.warning("Configurator: JSON of the URL '" + url + "' can not be written to the cache, exception: " + e.getMessage());
+		}
+	}
+	
+	
+	private static Path directory() {
+		return Paths.get(settings.getUrlCacheDirectory());
+	}
+	
+	
+	private static String sha256(byte[] bytes) {
+		
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+			StringBuilder hex = new StringBuilder(digest.length * 2);
+			for(byte b : digest)
+				hex.append(String.format("%02x", b));
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	
+	public static class CachedUrl {
+		
+		private final byte[] body;
+		private final String etag;
+		private final String lastModified;
+		private final long fetchedAt;
+		
+		private CachedUrl(byte[] body, String etag, String lastModified, long fetchedAt) {
+			this.body = body;
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.fetchedAt = fetchedAt;
+		}
+		
+		public byte[] getBody() {
+			return body;
+		}
+		public String getEtag() {
+			return etag;
+		}
+		public String getLastModified() {
+			return lastModified;
+		}
+		public long getFetchedAt() {
+			return fetchedAt;
+		}
+	}
+
+}
@@ -30,7 +30,7 @@ public class ConfigProducer {
 			
 			if(foundPropertyVal == null || foundPropertyVal.equals("")) {
 				if(defValue != null && !defValue.equals("")) {
-					loggerVerbose.log("@Config producer -> property value not found, returning def val: " + defValue);
+					loggerVerbose.log(() -> "@Config producer -> property value not found, returning def val: " + defValue);
 					return defValue;
 				} else {
 					loggerVerbose.log("@Config producer -> property value not found, def val not found");
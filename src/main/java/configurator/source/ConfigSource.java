@@ -0,0 +1,90 @@
+package configurator.source;
+
+import java.util.Map;
+
+import configurator.enums.SourceCachePolicy;
+
+/*    Copyright 2019 Arkadiusz Lopuszynski
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+/**
+ * A source of properties. Additional sources are discovered with the ServiceLoader, they are listed in the file:
+ * <pre>
+ * META-INF/services/configurator.source.ConfigSource
+ * </pre>
+ * A source with a higher ordinal overrides values of sources with lower ordinals. The built-in sources are:
+ * the environmental variables ({@value #ENVIRONMENT_ORDINAL}), system properties ({@value #SYSTEM_PROPERTIES_ORDINAL})
+ * and property files ({@value #PROPERTY_FILES_ORDINAL}). For JSON, values from the internal storage (jsonProperties)
+ * are placed at {@value #JSON_PROPERTIES_ORDINAL}.
+ * <p>
+ * Values of all sources are merged into one map, so a lookup never walks the sources. The cache policy tells when
+ * the values of a source are read again:
+ * <ul>
+ * <li>STATIC - read once.</li>
+ * <li>TTL - read again after {@link #getTimeToLive()} milliseconds.</li>
+ * <li>WATCHED - read again when the source calls the listener passed to {@link #setChangeListener(Runnable)}.</li>
+ * </ul>
+ * <pre>
+ * public class MyConfigSource implements ConfigSource {
+ *   public String getName() { return "my source"; }
+ *   public int getOrdinal() { return 250; }
+ *   public {@literal Map<String, String>} getAll() { return loadFromSomewhere(); }
+ *   public SourceCachePolicy getCachePolicy() { return SourceCachePolicy.TTL; }
+ *   public long getTimeToLive() { return 60_000; }
+ * }
+ * </pre>
+ */
+public interface ConfigSource {
+	
+	int ENVIRONMENT_ORDINAL = 400;
+	int SYSTEM_PROPERTIES_ORDINAL = 300;
+	int JSON_PROPERTIES_ORDINAL = 200;
+	int PROPERTY_FILES_ORDINAL = 100;
+	
+	/**
+	 * Name used in logs.
+	 */
+	String getName();
+	
+	/**
+	 * Sources with higher ordinals override values of sources with lower ordinals.
+	 */
+	int getOrdinal();
+	
+	/**
+	 * Returns all properties of the source. Called only when the cache policy requires it.
+	 */
+	Map<String, String> getAll();
+	
+	/**
+	 * Tells when values returned by {@link #getAll()} are read again. STATIC by default.
+	 */
+	default SourceCachePolicy getCachePolicy() {
+		return SourceCachePolicy.STATIC;
+	}
+	
+	/**
+	 * Time in milliseconds for the TTL cache policy. 0 or less means values are never read again.
+	 */
+	default long getTimeToLive() {
+		return 0;
+	}
+	
+	/**
+	 * A WATCHED source calls the listener after its values change, {@link #getAll()} is then called before the next lookup.
+	 */
+	default void setChangeListener(Runnable listener) {}
+
+}
@@ -0,0 +1,285 @@
+package configurator.source;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+import configurator.enums.SourceCachePolicy;
+import configurator.store.ConfigStore;
+import configurator.store.EnvironmentView;
+import configurator.store.SystemPropertiesView;
+
+// Merges values of all ConfigSources into precomputed maps, a lookup is one or two hash map gets and never walks the sources.
+// Sources above JSON_PROPERTIES_ORDINAL and the rest are merged separately, because for JSON the internal storage sits between them
+// and because reloading property files must not rebuild the part with the environment and system properties.
+public class ConfigSourceResolver {
+	
+	private final Logger logger;
+	
+	// Replaced once, when sources found by the ServiceLoader are added.
+	private volatile List<SourceEntry> upperSources = Collections.emptyList();
+	private volatile List<SourceEntry> lowerSources = Collections.emptyList();
+	private final List<ConfigSource> sources = new ArrayList<>();		// Guarded by rebuildLock.
+	// Sources are discovered by the first lookup, not when ConfiguratorSettings is created,
+	// a discovered source may call ConfiguratorSettings.getInstance() which would create the settings again.
+	private boolean discovered;				// Guarded by rebuildLock.
+	
+	// Null when a source changed, the next lookup rebuilds it.
+	private volatile Resolved resolved;
+	private Resolved lastResolved = new Resolved(0, Collections.emptyMap(), Collections.emptyMap(), false, 0);
+	private final ReentrantLock rebuildLock = new ReentrantLock();
+	private final AtomicLong changeCount = new AtomicLong();
+	
+	
+	public ConfigSourceResolver(EnvironmentView environment, SystemPropertiesView systemProperties, ConfigStore store, Logger logger) {
+		
+		this.logger = logger;
+		
+		sources.add(new EnvironmentSource(environment));
+		sources.add(new SystemPropertiesSource(systemProperties));
+		sources.add(new PropertyFilesSource(store));
+		setSources();
+	}
+	
+	
+	private void setSources() {
+		
+		// Ascending, so merging puts values of higher ordinals over lower ones.
+		sources.sort(Comparator.comparingInt(ConfigSource::getOrdinal));
+		
+		List<SourceEntry> upper = new ArrayList<>();
+		List<SourceEntry> lower = new ArrayList<>();
+		Map<ConfigSource, SourceEntry> entries = new IdentityHashMap<>();
+		upperSources.forEach(entry -> entries.put(entry.source, entry));
+		lowerSources.forEach(entry -> entries.put(entry.source, entry));
+		
+		for(ConfigSource source : sources) {
+			SourceEntry entry = entries.get(source);
+			if(entry == null) {
+				SourceEntry created = new SourceEntry(source);
+				source.setChangeListener(() -> invalidate(created));
+				entry = created;
+			}
+			if(source.getOrdinal() > ConfigSource.JSON_PROPERTIES_ORDINAL)
+				upper.add(entry);
+			else
+				lower.add(entry);
+		}
+		upperSources = Collections.unmodifiableList(upper);
+		lowerSources = Collections.unmodifiableList(lower);
+	}
+	
+	
+	// Sources which take precedence over jsonProperties, for Strings it is the first part of the lookup.
+	public String findBeforeJsonProperties(String key) {
+		return current().upper.get(key);
+	}
+	
+	public String findAfterJsonProperties(String key) {
+		return current().lower.get(key);
+	}
+	
+	public String find(String key) {
+		Resolved current = current();
+		String value = current.upper.get(key);
+		return value != null ? value : current.lower.get(key);
+	}
+	
+	
+	// Changes every time merged values are rebuilt.
+	public long getVersion() {
+		return current().version;
+	}
+	
+	
+	// All sources are read again before the next lookup.
+	public void refresh() {
+		upperSources.forEach(entry -> entry.dirty = true);
+		lowerSources.forEach(entry -> entry.dirty = true);
+		changeCount.incrementAndGet();
+		resolved = null;
+	}
+	
+	
+	private void invalidate(SourceEntry entry) {
+		entry.dirty = true;
+		changeCount.incrementAndGet();
+		resolved = null;
+	}
+	
+	
+	private Resolved current() {
+		
+		Resolved current = resolved;
+		if(current != null && !current.isExpired(System.nanoTime()))
+			return current;
+		
+		// An expired TTL source is rebuilt by one thread, others use the current values meanwhile.
+		if(current != null) {
+			if(!rebuildLock.tryLock())
+				return current;
+		} else {
+			rebuildLock.lock();
+		}
+		
+		try {
+			return rebuild();
+		} finally {
+			rebuildLock.unlock();
+		}
+	}
+	
+	
+	private Resolved rebuild() {
+		
+		Resolved current = resolved;
+		long now = System.nanoTime();
+		if(current != null && !current.isExpired(now))		// Rebuilt by other thread.
+			return current;
+		
+		if(!discovered) {
+			// Set before loading, a source doing a lookup while it is created gets values of the built-in sources.
+			discovered = true;
+			sources.addAll(discoverSources());
+			setSources();
+		}
+		
+		long changeCountAtStart = changeCount.get();
+		
+		boolean upperChanged = refreshEntries(upperSources, now);
+		boolean lowerChanged = refreshEntries(lowerSources, now);
+		
+		Map<String, String> upper = upperChanged ? merge(upperSources) : lastResolved.upper;
+		Map<String, String> lower = lowerChanged ? merge(lowerSources) : lastResolved.lower;
+		long version = (upperChanged || lowerChanged) ? lastResolved.version + 1 : lastResolved.version;
+		
+		boolean expires = false;
+		long expiresAtNanos = 0;
+		for(SourceEntry entry : upperSources) {
+			if(entry.expires && (!expires || entry.expiresAtNanos - expiresAtNanos < 0)) {
+				expires = true;
+				expiresAtNanos = entry.expiresAtNanos;
+			}
+		}
+		for(SourceEntry entry : lowerSources) {
+			if(entry.expires && (!expires || entry.expiresAtNanos - expiresAtNanos < 0)) {
+				expires = true;
+				expiresAtNanos = entry.expiresAtNanos;
+			}
+		}
+		
+		Resolved rebuilt = new Resolved(version, upper, lower, expires, expiresAtNanos);
+		lastResolved = rebuilt;
+		// A source changed while rebuilding, the next lookup rebuilds again.
+		resolved = changeCount.get() == changeCountAtStart ? rebuilt : null;
+		return rebuilt;
+	}
+	
+	
+	// Reads sources which were never read, changed, or expired. Returns true if values of any of them changed.
+	private boolean refreshEntries(List<SourceEntry> entries, long now) {
+		
+		boolean changed = false;
+		
+		for(SourceEntry entry : entries) {
+			
+			if(entry.values != null && !entry.dirty && !(entry.expires && now - entry.expiresAtNanos >= 0))
+				continue;
+			
+			entry.dirty = false;
+			ConfigSource source = entry.source;
+			Map<String, String> previous = entry.values;
+			
+			try {
+				// Copied, a source may return the same map changed in place and it would then equal the previous values.
+				Map<String, String> values = source.getAll();
+				entry.values = values == null ? Collections.emptyMap() : Collections.unmodifiableMap(new HashMap<>(values));
+			} catch (RuntimeException e) {		// Keeps the last values.
+				logger.severe("Configurator: Config source '" + source.getName() + "' can not return values, exception: " + e.getMessage());
+				if(entry.values == null)
+					entry.values = Collections.emptyMap();
+			}
+			
+			long ttl = source.getTimeToLive();
+			entry.expires = source.getCachePolicy() == SourceCachePolicy.TTL && ttl > 0;
+			entry.expiresAtNanos = now + TimeUnit.MILLISECONDS.toNanos(ttl);
+			
+			// A source read again with the same values does not change the version, live properties are not reloaded.
+			if(previous == null || !previous.equals(entry.values))
+				changed = true;
+		}
+		
+		return changed;
+	}
+	
+	
+	private static Map<String, String> merge(List<SourceEntry> entries) {
+		
+		Map<String, String> merged = new HashMap<>();
+		for(SourceEntry entry : entries)
+			merged.putAll(entry.values);
+		return Collections.unmodifiableMap(merged);
+	}
+	
+	
+	private List<ConfigSource> discoverSources() {
+		
+		List<ConfigSource> discovered = new ArrayList<>();
+		try {
+			for(ConfigSource source : ServiceLoader.load(ConfigSource.class)) {
+				logger.info("Configurator: Config source found: '" + source.getName() + "', ordinal: " + source.getOrdinal() + ", cache policy: " + source.getCachePolicy());
+				discovered.add(source);
+			}
+		} catch (ServiceConfigurationError e) {
+			logger.severe("Configurator: Config sources can not be loaded, exception: " + e.getMessage());
+		}
+		return discovered;
+	}
+	
+	
+	private static class SourceEntry {
+		
+		private final ConfigSource source;
+		private volatile boolean dirty;
+		private Map<String, String> values;			// Guarded by rebuildLock.
+		private boolean expires;
+		private long expiresAtNanos;
+		
+		private SourceEntry(ConfigSource source) {
+			this.source = source;
+		}
+	}
+	
+	
+	private static class Resolved {
+		
+		private final long version;
+		private final Map<String, String> upper;
+		private final Map<String, String> lower;
+		private final boolean expires;
+		private final long expiresAtNanos;
+		
+		private Resolved(long version, Map<String, String> upper, Map<String, String> lower, boolean expires, long expiresAtNanos) {
+			this.version = version;
+			this.upper = upper;
+			this.lower = lower;
+			this.expires = expires;
+			this.expiresAtNanos = expiresAtNanos;
+		}
+		
+		private boolean isExpired(long now) {
+			return expires && now - expiresAtNanos >= 0;
+		}
+	}
+
+}
@@ -0,0 +1,32 @@
+package configurator.source;
+
+import java.util.Map;
+
+import configurator.store.EnvironmentView;
+
+public class EnvironmentSource implements ConfigSource {
+	
+	private final EnvironmentView environment;
+	
+	
+	public EnvironmentSource(EnvironmentView environment) {
+		this.environment = environment;
+	}
+	
+	
+	@Override
+	public String getName() {
+		return "environmental variables";
+	}
+	
+	@Override
+	public int getOrdinal() {
+		return ENVIRONMENT_ORDINAL;
+	}
+	
+	@Override
+	public Map<String, String> getAll() {
+		return environment.getAll();
+	}
+
+}
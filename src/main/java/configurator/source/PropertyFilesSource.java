@@ -0,0 +1,44 @@
+package configurator.source;
+
+import java.util.Map;
+
+import configurator.enums.SourceCachePolicy;
+import configurator.store.ConfigStore;
+
+// Properties loaded from files into the internal storage, read again after they are reloaded.
+public class PropertyFilesSource implements ConfigSource {
+	
+	private final ConfigStore store;
+	
+	
+	public PropertyFilesSource(ConfigStore store) {
+		this.store = store;
+	}
+	
+	
+	@Override
+	public String getName() {
+		return "property files";
+	}
+	
+	@Override
+	public int getOrdinal() {
+		return PROPERTY_FILES_ORDINAL;
+	}
+	
+	@Override
+	public Map<String, String> getAll() {
+		return store.current().getProperties();
+	}
+	
+	@Override
+	public SourceCachePolicy getCachePolicy() {
+		return SourceCachePolicy.WATCHED;
+	}
+	
+	@Override
+	public void setChangeListener(Runnable listener) {
+		store.addPropertiesListener(listener);
+	}
+
+}
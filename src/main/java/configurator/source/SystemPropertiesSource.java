@@ -0,0 +1,49 @@
+package configurator.source;
+
+import java.util.Map;
+
+import configurator.enums.SourceCachePolicy;
+import configurator.store.SystemPropertiesView;
+
+// Read again after the refresh interval of the view or after SystemPropertiesView.refresh().
+public class SystemPropertiesSource implements ConfigSource {
+	
+	private final SystemPropertiesView systemProperties;
+	
+	
+	public SystemPropertiesSource(SystemPropertiesView systemProperties) {
+		this.systemProperties = systemProperties;
+	}
+	
+	
+	@Override
+	public String getName() {
+		return "system properties";
+	}
+	
+	@Override
+	public int getOrdinal() {
+		return SYSTEM_PROPERTIES_ORDINAL;
+	}
+	
+	@Override
+	public Map<String, String> getAll() {
+		return systemProperties.getAll();
+	}
+	
+	@Override
+	public SourceCachePolicy getCachePolicy() {
+		return SourceCachePolicy.TTL;
+	}
+	
+	@Override
+	public long getTimeToLive() {
+		return systemProperties.getRefreshInterval();
+	}
+	
+	@Override
+	public void setChangeListener(Runnable listener) {
+		systemProperties.addRefreshListener(listener);
+	}
+
+}
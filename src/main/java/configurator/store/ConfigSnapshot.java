@@ -0,0 +1,110 @@
+package configurator.store;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+
+// Immutable state of the internal storage: properties loaded from files and JSON values (jsonProperties).
+// A change never modifies a snapshot, it creates a new one with a higher version, see ConfigStore.
+public final class ConfigSnapshot {
+	
+	public static final ConfigSnapshot EMPTY = new ConfigSnapshot(0, Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+	
+	private final long version;
+	private final Map<String, String> properties;
+	private final Map<String, Object> json;
+	// The same keys as json, an entry memoizes the serialized value and is shared by later snapshots while the value instance is unchanged.
+	private final Map<String, JsonEntry> jsonEntries;
+	
+	
+	private ConfigSnapshot(long version, Map<String, String> properties, Map<String, Object> json, Map<String, JsonEntry> jsonEntries) {
+		this.version = version;
+		this.properties = properties;
+		this.json = json;
+		this.jsonEntries = jsonEntries;
+	}
+	
+	
+	public long getVersion() {
+		return version;
+	}
+	
+	public Map<String, String> getProperties() {
+		return properties;
+	}
+	
+	public Map<String, Object> getJson() {
+		return json;
+	}
+	
+	public String getProperty(String key) {
+		return properties.get(key);
+	}
+	
+	// A lazily loaded value is parsed here on the first access.
+	public Object getJson(String key) {
+		Object value = json.get(key);
+		return value instanceof LazyValue ? ((LazyValue) value).get() : value;
+	}
+	
+	// The value as a String, a JSON value is serialized once and the String is reused until the value changes. Null if no value.
+	public String getJsonString(String key) {
+		JsonEntry entry = jsonEntries.get(key);
+		return entry == null ? null : entry.getText();
+	}
+	
+	// Without parsing, a lazily loaded value is returned as LazyValue.
+	public Object getRawJson(String key) {
+		return json.get(key);
+	}
+	
+	
+	// Maps passed are copied, the caller may reuse them.
+	public ConfigSnapshot withProperties(Map<String, String> newProperties) {
+		return new ConfigSnapshot(version + 1, Collections.unmodifiableMap(new HashMap<>(newProperties)), json, jsonEntries);
+	}
+	
+	// No side effects, it may be called again by a retried ConfigStore update. Entries of changed or removed keys are not copied.
+	public ConfigSnapshot withJson(Map<String, Object> newJson) {
+		
+		Map<String, Object> copy = Collections.unmodifiableMap(new HashMap<>(newJson));
+		Map<String, JsonEntry> entries = new HashMap<>();
+		copy.forEach((key, value) -> {
+			JsonEntry entry = jsonEntries.get(key);
+			entries.put(key, entry != null && entry.rawValue == value ? entry : new JsonEntry(value));
+		});
+		return new ConfigSnapshot(version + 1, properties, copy, Collections.unmodifiableMap(entries));
+	}
+	
+	
+	@Override
+	public String toString() {
+		return "ConfigSnapshot [version=" + version + ", properties=" + properties.size() + ", json=" + json.size() + "]";
+	}
+	
+	
+	// A value serialized once on the first getJsonString call, two threads may serialize it at the same time with the same result.
+	private static class JsonEntry {
+		
+		private final Object rawValue;		// as stored, LazyValue for lazily loaded values
+		private volatile String text;
+		
+		private JsonEntry(Object rawValue) {
+			this.rawValue = rawValue;
+		}
+		
+		private String getText() {
+			String result = text;
+			if(result == null) {
+				Object value = rawValue instanceof LazyValue ? ((LazyValue) rawValue).get() : rawValue;
+				if(value == null)
+					return null;
+				result = value.toString();
+				text = result;
+			}
+			return result;
+		}
+	}
+	
+}
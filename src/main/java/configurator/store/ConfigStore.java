@@ -0,0 +1,92 @@
+package configurator.store;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+// The internal storage. Readers get the current ConfigSnapshot with one volatile read and never lock.
+// Writers build a new snapshot from the current one and swap it in, so readers never see a half loaded configuration.
+public class ConfigStore {
+	
+	private final AtomicReference<ConfigSnapshot> current = new AtomicReference<>(ConfigSnapshot.EMPTY);
+	private final List<Runnable> propertiesListeners = new CopyOnWriteArrayList<>();
+	
+	
+	public ConfigSnapshot current() {
+		return current.get();
+	}
+	
+	
+	// The change may be called more than once if another writer swaps a snapshot in the meantime, it must have no side effects.
+	// If the change returns the same snapshot nothing is swapped.
+	public ConfigSnapshot update(UnaryOperator<ConfigSnapshot> change) {
+		
+		while(true) {
+			ConfigSnapshot snapshot = current.get();
+			ConfigSnapshot changed = change.apply(snapshot);
+			if(changed == snapshot)
+				return changed;
+			if(current.compareAndSet(snapshot, changed)) {
+				if(changed.getProperties() != snapshot.getProperties())
+					propertiesListeners.forEach(Runnable::run);
+				return changed;
+			}
+		}
+	}
+	
+	
+	// Called after a snapshot with changed properties is swapped in.
+	public void addPropertiesListener(Runnable listener) {
+		propertiesListeners.add(listener);
+	}
+	
+	
+	public void putAllProperties(Map<String, String> properties) {
+		
+		update(snapshot -> {
+			Map<String, String> newProperties = new HashMap<>(snapshot.getProperties());
+			newProperties.putAll(properties);
+			return newProperties.equals(snapshot.getProperties()) ? snapshot : snapshot.withProperties(newProperties);
+		});
+	}
+	
+	
+	// Equal values are not swapped in, so reloading an unchanged value does not copy the map.
+	public void putJson(String key, Object value) {
+		
+		update(snapshot -> {
+			if(Objects.equals(snapshot.getRawJson(key), value))
+				return snapshot;
+			Map<String, Object> newJson = new HashMap<>(snapshot.getJson());
+			newJson.put(key, value);
+			return snapshot.withJson(newJson);
+		});
+	}
+	
+	public void putAllJson(Map<String, Object> json) {
+		
+		update(snapshot -> {
+			Map<String, Object> newJson = new HashMap<>(snapshot.getJson());
+			newJson.putAll(json);
+			return newJson.equals(snapshot.getJson()) ? snapshot : snapshot.withJson(newJson);
+		});
+	}
+	
+	// Replaces only if the current value is still the old one.
+	public boolean replaceJson(String key, Object oldValue, Object newValue) {
+		
+		ConfigSnapshot result = update(snapshot -> {
+			if(snapshot.getRawJson(key) != oldValue)
+				return snapshot;
+			Map<String, Object> newJson = new HashMap<>(snapshot.getJson());
+			newJson.put(key, newValue);
+			return snapshot.withJson(newJson);
+		});
+		return result.getRawJson(key) == newValue;
+	}
+
+}
@@ -0,0 +1,21 @@
+package configurator.store;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// The environment can not change in the running process, it is captured once into a plain hash map.
+public class EnvironmentView {
+	
+	private final Map<String, String> environment = Collections.unmodifiableMap(new HashMap<>(System.getenv()));
+	
+	
+	public String get(String key) {
+		return environment.get(key);
+	}
+	
+	public Map<String, String> getAll() {
+		return environment;
+	}
+
+}
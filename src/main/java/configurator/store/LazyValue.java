@@ -0,0 +1,28 @@
+package configurator.store;
+
+/*    Copyright 2019 Arkadiusz Lopuszynski
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+/**
+ * A value kept in the store in its raw form and converted on the first access, e.g. JSON parsed only when it is read.
+ */
+public interface LazyValue {
+	
+	/**
+	 * Returns the converted value, converting it on the first call.
+	 */
+	Object get();
+	
+}
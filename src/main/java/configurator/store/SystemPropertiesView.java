@@ -0,0 +1,81 @@
+package configurator.store;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cached copy of system properties, lookups do not touch the synchronized System.getProperties().
+// It is refreshed by refresh() or, if the refresh interval is greater than 0, by the first lookup after the interval passed.
+public class SystemPropertiesView {
+	
+	private volatile Map<String, String> properties = copySystemProperties();
+	private volatile long refreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(1000);
+	private final AtomicLong lastRefreshNanos = new AtomicLong(System.nanoTime());
+	private final List<Runnable> refreshListeners = new CopyOnWriteArrayList<>();
+	
+	
+	public String get(String key) {
+		refreshIfExpired();
+		return properties.get(key);
+	}
+	
+	public Map<String, String> getAll() {
+		refreshIfExpired();
+		return properties;
+	}
+	
+	
+	public void refresh() {
+		lastRefreshNanos.set(System.nanoTime());
+		properties = copySystemProperties();
+		refreshListeners.forEach(Runnable::run);
+	}
+	
+	// Called after refresh(), not after refreshes made by lookups.
+	public void addRefreshListener(Runnable listener) {
+		refreshListeners.add(listener);
+	}
+	
+	
+	// 0 or less - refreshed only by refresh().
+	public void setRefreshInterval(long millis) {
+		this.refreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+	}
+	public long getRefreshInterval() {
+		return TimeUnit.NANOSECONDS.toMillis(refreshIntervalNanos);
+	}
+	
+	
+	private void refreshIfExpired() {
+		
+		long interval = refreshIntervalNanos;
+		if(interval <= 0)
+			return;
+		
+		long last = lastRefreshNanos.get();
+		long now = System.nanoTime();
+		// Only the thread which moves the time forward refreshes, others keep using the current copy.
+		if(now - last >= interval && lastRefreshNanos.compareAndSet(last, now)) {
+			properties = copySystemProperties();
+		}
+	}
+	
+	
+	private static Map<String, String> copySystemProperties() {
+		
+		Properties system = System.getProperties();
+		Map<String, String> copy = new HashMap<>();
+		for(String name : system.stringPropertyNames()) {
+			String value = system.getProperty(name);
+			if(value != null)
+				copy.put(name, value);
+		}
+		return Collections.unmodifiableMap(copy);
+	}
+
+}
@@ -1,19 +1,18 @@
 package configurator.typed;
 
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.util.logging.Logger;
 
 import javax.enterprise.inject.Produces;
-import javax.enterprise.inject.spi.Annotated;
 import javax.enterprise.inject.spi.InjectionPoint;
-import javax.json.JsonArray;
-import javax.json.JsonObject;
 
+import configurator.BooleanProperty;
 import configurator.ConfiguratorSettings;
+import configurator.DoubleProperty;
+import configurator.IntProperty;
+import configurator.LiveTypedProperty;
+import configurator.LongProperty;
 import configurator.TypedProperty;
-import configurator.annotations.ConfigJson;
-import configurator.annotations.ConfigTyped;
+import configurator.json.JsonInjectionPlan;
 import configurator.json.LoaderJson;
 import configurator.utils.VerboseLogger;
 
@@ -28,51 +27,24 @@ public class ConfigTypedProducer {
 	@Produces
 	public <T> TypedProperty<T> produceTyped(InjectionPoint ip) {
 		
-		Annotated annotated = ip.getAnnotated();
-		ConfigTyped configTypedAnn = annotated.getAnnotation(ConfigTyped.class);
-		ConfigJson configJsonAnn = annotated.getAnnotation(ConfigJson.class);
+		// Plans are built once per injection point, annotations and generic types are not read again.
+		JsonInjectionPlan jsonPlan = JsonInjectionPlan.of(ip);
 		
-		
-		if(configJsonAnn != null) {
+		if(jsonPlan != null && jsonPlan.getJsonClass() != null) {
 			loggerVerbose.log(" ------------------------------------------------------------------------------- ");
-			
-			ParameterizedType parameterizedType = null;
-			// Checks if there is a generic type, if no returns String version
-			try {
-				parameterizedType = (ParameterizedType) ip.getType();
-			} catch (Exception e) {
-				logger.severe("Configurator: No generic parameter provided, can not cast, returning String version. Class: '" + ip.getMember().getDeclaringClass().getName() + "', field: '" + ip.getMember().getName() + "'.");
-				return LoaderJson.loadJson(ip, String.class);
-			}
-			
-			Type type = parameterizedType.getActualTypeArguments()[0];
-			
-			if(type == JsonObject.class) {
-				return LoaderJson.loadJson(ip, JsonObject.class);
-			} else if(type == JsonArray.class) {
-				return LoaderJson.loadJson(ip, JsonArray.class);
-			} else if(type == String.class) {
-				return LoaderJson.loadJson(ip, String.class);
-			}  
-			
+			if(jsonPlan.isLive())
+				return new LiveTypedProperty<>(() -> LoaderJson.loadJson(jsonPlan));
+			return LoaderJson.loadJson(jsonPlan);
 		}
 		
 		
-		if(configTypedAnn != null) {
+		TypedInjectionPlan typedPlan = TypedInjectionPlan.of(ip);
+		
+		if(typedPlan != null) {
 			loggerVerbose.log(" ------------------------------------------------------------------------------- ");
-			
-			ParameterizedType parameterizedType = null;
-			// Checks if there is a generic type, if no returns String version
-			try {
-				parameterizedType = (ParameterizedType) ip.getType();
-			} catch (Exception e) {
-				logger.severe("Configurator: No generic parameter provided, can not cast, returning String version. Class: '" + ip.getMember().getDeclaringClass().getName() + "', field: '" + ip.getMember().getName() + "'.");
-				return LoaderTyped.loadTyped(ip, String.class);
-			}
-			
-			Class<?> type = (Class<?>) parameterizedType.getActualTypeArguments()[0];
-			
-			return LoaderTyped.loadTyped(ip, type);
+			if(typedPlan.isLive())
+				return new LiveTypedProperty<>(() -> LoaderTyped.loadTyped(typedPlan));
+			return LoaderTyped.loadTyped(typedPlan);
 		}
 		
 		
@@ -80,4 +52,44 @@ public class ConfigTypedProducer {
 	}
 	
 	
-}
\ No newline at end of file
+	// Primitive holders use the same loader as TypedProperty, values are unboxed once here.
+	@Produces
+	public IntProperty produceInt(InjectionPoint ip) {
+		TypedProperty<Integer> typed = loadPrimitiveHolder(ip);
+		return new IntProperty(typed.getPropertyName(), typed.getValue(), typed.getDefaultValue());
+	}
+	
+	@Produces
+	public LongProperty produceLong(InjectionPoint ip) {
+		TypedProperty<Long> typed = loadPrimitiveHolder(ip);
+		return new LongProperty(typed.getPropertyName(), typed.getValue(), typed.getDefaultValue());
+	}
+	
+	@Produces
+	public DoubleProperty produceDouble(InjectionPoint ip) {
+		TypedProperty<Double> typed = loadPrimitiveHolder(ip);
+		return new DoubleProperty(typed.getPropertyName(), typed.getValue(), typed.getDefaultValue());
+	}
+	
+	@Produces
+	public BooleanProperty produceBoolean(InjectionPoint ip) {
+		TypedProperty<Boolean> typed = loadPrimitiveHolder(ip);
+		return new BooleanProperty(typed.getPropertyName(), typed.getValue(), typed.getDefaultValue());
+	}
+	
+	private TypedProperty loadPrimitiveHolder(InjectionPoint ip) {
+		
+		TypedInjectionPlan typedPlan = TypedInjectionPlan.of(ip);
+		if(typedPlan == null)
+			return new TypedProperty("No @ConfigTyped annotation set, could not find any values", null, null);
+		
+		// Primitive holders keep unboxed values, they cannot follow changes.
+		if(typedPlan.isLive())
+			logger.warning("Configurator: live is not supported for primitive holders, the value of '" + typedPlan.getPropertyName() + "' is loaded once, injection point: " + ip.getMember());
+		
+		loggerVerbose.log(" ------------------------------------------------------------------------------- ");
+		return LoaderTyped.loadTyped(typedPlan);
+	}
+	
+	
+}
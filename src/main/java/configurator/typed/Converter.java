@@ -0,0 +1,48 @@
+package configurator.typed;
+
+/*    Copyright 2019 Arkadiusz Lopuszynski
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*     http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+
+/**
+ * Converts a String value to the type of {@code TypedProperty<TYPE>} injected with the @ConfigTyped annotation.
+ * Additional converters are discovered with the ServiceLoader, they are listed in the file:
+ * <pre>
+ * META-INF/services/configurator.typed.Converter
+ * </pre>
+ * Built-in converters exist for String, Double, Float, Long, Integer, Short, Byte, Boolean, Character, BigDecimal,
+ * BigInteger, Duration, URI and enums. A discovered converter replaces the built-in one for the same type.
+ * <p>
+ * A converted value is cached and reused until the String value changes, so a converter must return an immutable
+ * or not shared object and must not depend on anything else than the String value.
+ * <pre>
+ * public class LocalDateConverter implements {@literal Converter<LocalDate>} {
+ *   public {@literal Class<LocalDate>} getType() { return LocalDate.class; }
+ *   public LocalDate convert(String value) { return LocalDate.parse(value); }
+ * }
+ * </pre>
+ */
+public interface Converter<T> {
+	
+	/**
+	 * The class this converter returns.
+	 */
+	Class<T> getType();
+	
+	/**
+	 * Converts a loaded String value. An exception thrown is reported as a parsing error of the injection point.
+	 */
+	T convert(String value);
+
+}
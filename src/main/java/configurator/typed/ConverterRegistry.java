@@ -0,0 +1,170 @@
+package configurator.typed;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+// Converters by target class, and converted values cached by property key and class until the String value changes.
+@SuppressWarnings({"rawtypes","unchecked"})
+public class ConverterRegistry {
+	
+	private final Logger logger;
+	
+	private final Map<Class<?>, Converter<?>> converters = new ConcurrentHashMap<>();
+	private final Map<CacheKey, CachedValue> convertedValues = new ConcurrentHashMap<>();
+	// Converters are discovered on the first use, not when ConfiguratorSettings is created,
+	// a discovered converter may call ConfiguratorSettings.getInstance() which would create the settings again.
+	private volatile boolean discovered;
+	private boolean discovering;				// Guarded by this.
+	
+	
+	public ConverterRegistry(Logger logger) {
+		
+		this.logger = logger;
+		
+		register(String.class, value -> value);
+		register(Double.class, Double::valueOf);
+		register(Float.class, Float::valueOf);
+		register(Long.class, Long::valueOf);
+		register(Integer.class, Integer::valueOf);
+		register(Short.class, Short::valueOf);
+		register(Byte.class, Byte::valueOf);
+		register(Boolean.class, Boolean::valueOf);
+		register(Character.class, value -> value.charAt(0));
+		register(BigDecimal.class, BigDecimal::new);
+		register(BigInteger.class, BigInteger::new);
+		register(Duration.class, Duration::parse);
+		register(URI.class, URI::create);
+	}
+	
+	
+	public <T> void register(Converter<T> converter) {
+		discoverConverters();		// A converter registered here replaces a discovered one.
+		converters.put(converter.getType(), converter);
+		convertedValues.keySet().removeIf(key -> key.type == converter.getType());
+	}
+	
+	private <T> void register(Class<T> type, Function<String, T> function) {
+		converters.put(type, new FunctionConverter<>(type, function));
+	}
+	
+	
+	// Returns null if there is no converter for the class.
+	public <T> Converter<T> getConverter(Class<T> type) {
+		
+		discoverConverters();
+		Converter<T> converter = (Converter<T>) converters.get(type);
+		if(converter == null && type.isEnum()) {
+			converter = (Converter<T>) converters.computeIfAbsent(type, enumType -> new FunctionConverter(enumType, value -> Enum.valueOf((Class) enumType, (String) value)));
+		}
+		return converter;
+	}
+	
+	
+	// Converts the value or returns the one converted before for the same key, class and String value.
+	// The key is a property name or anything else identifying where the value comes from, a null value is not cached.
+	public <T> T convert(String key, Class<T> type, String value, Converter<T> converter) {
+		
+		if(value == null)
+			return converter.convert(value);
+		
+		CacheKey cacheKey = new CacheKey(key, type);
+		CachedValue cached = convertedValues.get(cacheKey);
+		if(cached != null && cached.rawValue.equals(value))
+			return (T) cached.value;
+		
+		T converted = converter.convert(value);
+		convertedValues.put(cacheKey, new CachedValue(value, converted));
+		return converted;
+	}
+	
+	
+	// Other threads wait for the discovery, a converter using the registry while it is created sees only the built-in ones.
+	private void discoverConverters() {
+		
+		if(discovered)
+			return;
+		
+		synchronized(this) {
+			if(discovered || discovering)
+				return;
+			discovering = true;
+			try {
+				for(Converter<?> converter : ServiceLoader.load(Converter.class)) {
+					logger.info("Configurator: Converter found: '" + converter.getClass().getName() + "', type: " + converter.getType().getName());
+					converters.put(converter.getType(), converter);
+				}
+			} catch (ServiceConfigurationError e) {
+				logger.severe("Configurator: Converters can not be loaded, exception: " + e.getMessage());
+			} finally {
+				discovering = false;
+				discovered = true;
+			}
+		}
+	}
+	
+	
+	private static class FunctionConverter<T> implements Converter<T> {
+		
+		private final Class<T> type;
+		private final Function<String, T> function;
+		
+		private FunctionConverter(Class<T> type, Function<String, T> function) {
+			this.type = type;
+			this.function = function;
+		}
+		
+		public Class<T> getType() {
+			return type;
+		}
+		public T convert(String value) {
+			return function.apply(value);
+		}
+	}
+	
+	
+	private static class CacheKey {
+		
+		private final String key;
+		private final Class<?> type;
+		
+		private CacheKey(String key, Class<?> type) {
+			this.key = key;
+			this.type = type;
+		}
+		
+		@Override
+		public int hashCode() {
+			return 31 * Objects.hashCode(key) + type.hashCode();
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof CacheKey))
+				return false;
+			CacheKey other = (CacheKey) obj;
+			return type == other.type && Objects.equals(key, other.key);
+		}
+	}
+	
+	
+	private static class CachedValue {
+		
+		private final String rawValue;
+		private final Object value;
+		
+		private CachedValue(String rawValue, Object value) {
+			this.rawValue = rawValue;
+			this.value = value;
+		}
+	}
+
+}
@@ -1,50 +1,58 @@
 package configurator.typed;
 
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 import configurator.ConfiguratorException;
 import configurator.ConfiguratorSettings;
 import configurator.enums.RuntimeCheckType;
+import configurator.source.ConfigSourceResolver;
+import configurator.store.ConfigSnapshot;
+import configurator.store.ConfigStore;
 import configurator.utils.ConfigUtils;
+import configurator.utils.FileBuffers.ByteBufferInputStream;
+import configurator.utils.FileChangeTracker;
 import configurator.utils.VerboseLogger;
 
 public class LoaderProperties {
 	
 	private static ConfiguratorSettings settings = ConfiguratorSettings.getInstance();
-	private static Properties loadedProperties = settings.getLoadedProperties();
+	private static ConfigStore store = settings.getStore();
+	private static ConfigSourceResolver sourceResolver = settings.getSourceResolver();
 	private static Logger logger = settings.getLogger();
 	private static VerboseLogger loggerVerbose = settings.getVerboseLogger();
 	
+	private static FileChangeTracker fileTracker = new FileChangeTracker();
+	// Last successfully parsed content of every file, reapplied in order when any of them changes.
+	private static Map<String, Properties> propertiesByPath = new ConcurrentHashMap<>();
 	
-	// Looks for values: env / system / loadedProperties
+	
+	// Looks for values in config sources ordered by ordinal: env / system / other sources / loadedProperties
 	public static String findPropertyValue(String propToFind, RuntimeCheckType annotationRuntimeCheck) {
-		loggerVerbose.log("PROPERTY FINDER -> find method, key passed: " + propToFind);
+		loggerVerbose.log(() -> "PROPERTY FINDER -> find method, key passed: " + propToFind);
 		
-		String envProperty = System.getenv(propToFind);
-		if(envProperty != null) {
-			loggerVerbose.log("PROPERTY FINDER -> ENV var found. Key: " + propToFind + ", value: " + envProperty);
-			return envProperty;
+		String sourceProperty = sourceResolver.findBeforeJsonProperties(propToFind);
+		if(sourceProperty != null) {
+			loggerVerbose.log(() -> "PROPERTY FINDER -> ENV var, System property or config source found. Key: " + propToFind + ", value: " + sourceProperty);
+			return sourceProperty;
 		}
 		
-		String sysProperty = System.getProperty(propToFind);
-		if(sysProperty != null) {
-			loggerVerbose.log("PROPERTY FINDER -> System property found. Key: " + propToFind + ", value: " + sysProperty);
-			return sysProperty;
-		}
-		// Here because no need to reload before dynamic ones
-		if(ConfigUtils.runtimeTrueReloadOrPropertiesOtherwise(settings.isRuntimeCheck(), annotationRuntimeCheck) == true) {
-			loggerVerbose.log("PROPERTY FINDER -> --- RELOADING PROPERTIES ---");
-			LoaderProperties.loadPropertiesFromFile(settings.getPropertiesPaths());
+		// Here because no need to reload before dynamic ones. Watched files are reloaded in the background.
+		if(ConfigUtils.runtimeTrueReloadOrPropertiesOtherwise(settings.isRuntimeCheck(), annotationRuntimeCheck) == true && settings.isWatchFiles() == false) {
+			LoaderProperties.reloadPropertiesFiles();
 		}
 		
-		String fileProperty = loadedProperties.getProperty(propToFind);
+		String fileProperty = sourceResolver.findAfterJsonProperties(propToFind);
 		if(fileProperty != null) {
-			loggerVerbose.log("PROPERTY FINDER -> file property found. Key: " + propToFind + ", value: " + fileProperty);
+			loggerVerbose.log(() -> "PROPERTY FINDER -> file property or config source found. Key: " + propToFind + ", value: " + fileProperty);
 			return fileProperty;
 		}
 		
@@ -53,31 +61,87 @@ public class LoaderProperties {
 	}
 	
 	
-	public static void loadPropertiesFromFile(HashSet<String> paths) {
-		loggerVerbose.log("LOADER_FILE_PROPERTIES -> props size: " + paths.size() + ", paths: " + paths);
+	// Runtime check reload. If another thread is reloading or the minimum reload interval has not passed, properties loaded before are used.
+	public static void reloadPropertiesFiles() {
+		
+		boolean reloaded = settings.getReloadCoordinator().reload("propertiesPaths", () -> LoaderProperties.loadPropertiesFromFile(settings.getPropertiesPaths()));
+		loggerVerbose.log(() -> "PROPERTY FINDER -> --- RELOADING PROPERTIES --- " + (reloaded ? "reloaded" : "skipped, reloading or reloaded recently"));
+	}
+	
+	
+	// Only new or changed files are read and parsed, if nothing changed the loaded properties are not touched.
+	public static void loadPropertiesFromFile(Collection<String> paths) {
+		loggerVerbose.log(() -> "LOADER_FILE_PROPERTIES -> props size: " + paths.size() + ", paths: " + paths);
+		
+		boolean changed = false;
 		
 		for(String path : paths) {
-			
-			if (path == null || path.equals(""))
-				continue;
+			if(LoaderProperties.readPropertiesFile(path) == true)
+				changed = true;
+		}
+		
+		if(changed == false) {
+			loggerVerbose.log("LOADER_FILE_PROPERTIES -> no file changed, nothing to load");
+			return;
+		}
+		
+		LoaderProperties.applyProperties(paths);
+	}
+	
+	
+	// Reads and parses one file if it changed, returns true if it did. Safe to call for different files in parallel.
+	public static boolean readPropertiesFile(String path) {
+		
+		if (path == null || path.equals(""))
+			return false;
+		
+		try {
+			ByteBuffer content = fileTracker.readBufferIfChanged(path);
+			if(content == null)
+				return false;
 			
 			Properties props = new Properties();
-			
-			try (InputStream is = new FileInputStream(path)) {
+			try (InputStream is = new ByteBufferInputStream(content)) {
 				props.load(is);
-				loadedProperties.putAll(props);
-				
-			} catch (IOException e) {
-				String excMessage = String.format("Properties file loader can not load file: '%s', exception: %s", path, e.getMessage());
-				if(settings.isAllowDeploymentWithExceptions() == true) {
-					logger.severe("Configurator: " + excMessage);
-				} else {
-					throw new ConfiguratorException(excMessage);
-				}
+			}
+			propertiesByPath.put(path, props);
+			return true;
+			
+		} catch (IOException | IllegalArgumentException e) {
+			fileTracker.forget(path);
+			String excMessage = String.format("Properties file loader can not load file: '%s', exception: %s", path, e.getMessage());
+			if(settings.isAllowDeploymentWithExceptions() == true) {
+				logger.severe("Configurator: " + excMessage);
+				return false;
+			} else {
+				throw new ConfiguratorException(excMessage);
+			}
+		}
+	}
+	
+	
+	// Next read of the file parses it even if it did not change.
+	public static void forgetPropertiesFile(String path) {
+		fileTracker.forget(path);
+	}
+	
+	
+	// Puts properties of the files read before in the internal storage, a file later in the order overrides earlier ones.
+	public static void applyProperties(Collection<String> paths) {
+		
+		// Built aside and swapped in at once, readers see either old or new properties.
+		Map<String, String> newProperties = new HashMap<>();
+		for(String path : paths) {
+			Properties props = path == null ? null : propertiesByPath.get(path);
+			if(props != null) {
+				for(String name : props.stringPropertyNames())
+					newProperties.put(name, props.getProperty(name));
 			}
 		}
+		store.putAllProperties(newProperties);
 		
-		loggerVerbose.log("Properties -> size: " + loadedProperties.size() + ", keys: " + loadedProperties.keySet());
+		ConfigSnapshot snapshot = store.current();
+		loggerVerbose.log(() -> "Properties -> version: " + snapshot.getVersion() + ", size: " + snapshot.getProperties().size() + ", keys: " + snapshot.getProperties().keySet());
 	}
 	
 }
@@ -0,0 +1,143 @@
+package configurator.typed;
+
+import java.lang.reflect.Member;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import javax.enterprise.inject.spi.InjectionPoint;
+
+import configurator.BooleanProperty;
+import configurator.ConfiguratorSettings;
+import configurator.DoubleProperty;
+import configurator.IntProperty;
+import configurator.LongProperty;
+import configurator.annotations.ConfigTyped;
+import configurator.enums.RuntimeCheckType;
+import configurator.enums.TypedOperationTypeValue;
+import configurator.utils.ConfigUtils;
+
+// What LoaderTyped needs from a @ConfigTyped injection point, read from the annotation once and cached per field.
+// Built at bootstrap by ConfiguratorExtension or on the first injection.
+public class TypedInjectionPlan {
+	
+	private static ConfiguratorSettings settings = ConfiguratorSettings.getInstance();
+	private static Logger logger = settings.getLogger();
+	
+	private static final Map<Member, TypedInjectionPlan> plans = new ConcurrentHashMap<>();
+	
+	// Primitive holders are parsed as their boxed types.
+	private static final Map<Class<?>, Class<?>> primitiveHolderTypes = new HashMap<>();
+	static {
+		primitiveHolderTypes.put(IntProperty.class, Integer.class);
+		primitiveHolderTypes.put(LongProperty.class, Long.class);
+		primitiveHolderTypes.put(DoubleProperty.class, Double.class);
+		primitiveHolderTypes.put(BooleanProperty.class, Boolean.class);
+	}
+	
+	private final String propertyName;					// null if no value attribute set
+	private final Class<?> typedClass;
+	private final boolean runtimeCheck;
+	private final boolean live;
+	private final TypedOperationType valueType;			// null if no value attribute set
+	private final TypedOperationType defaultValueType;	// null if no default value attribute set
+	private final String injectionClassName;
+	private final String injectionFieldName;
+	
+	
+	// Returns null if the injection point has no @ConfigTyped annotation.
+	public static TypedInjectionPlan of(InjectionPoint ip) {
+		
+		TypedInjectionPlan plan = plans.get(ip.getMember());
+		if(plan != null)
+			return plan;
+		
+		ConfigTyped configTypedAnn = ip.getAnnotated().getAnnotation(ConfigTyped.class);
+		if(configTypedAnn == null)
+			return null;
+		
+		return plans.computeIfAbsent(ip.getMember(), member -> new TypedInjectionPlan(ip, configTypedAnn));
+	}
+	
+	
+	private TypedInjectionPlan(InjectionPoint ip, ConfigTyped configTypedAnn) {
+		
+		this.injectionClassName = ip.getMember().getDeclaringClass().getName();
+		this.injectionFieldName = ip.getMember().getName();
+		this.typedClass = TypedInjectionPlan.resolveTypedClass(ip, injectionClassName, injectionFieldName);
+		this.runtimeCheck = ConfigUtils.runtimeTrueReloadOrPropertiesOtherwise(settings.isRuntimeCheck(), configTypedAnn.runtimeCheck());
+		this.live = configTypedAnn.live();
+		
+		String value = configTypedAnn.value();
+		if(value != null && !value.equals("")) {
+			this.propertyName = value;
+			this.valueType = new TypedOperationType(TypedOperationTypeValue.PROPERTY, "value", value);
+		} else {
+			this.propertyName = null;
+			this.valueType = null;
+		}
+		
+		String stringDefaultValue = configTypedAnn.defaultValue();
+		String propertyDefaultValue = configTypedAnn.defaultValueProperty();
+		
+		if(stringDefaultValue != null && !stringDefaultValue.equals("")) {
+			this.defaultValueType = new TypedOperationType(TypedOperationTypeValue.DEFAULT_VALUE_STRING, "defaultValue", stringDefaultValue);
+		} else if(propertyDefaultValue != null && !propertyDefaultValue.equals("")) {
+			this.defaultValueType = new TypedOperationType(TypedOperationTypeValue.DEFAULT_VALUE_PROPERTY, "defaultValueProperty", propertyDefaultValue);
+		} else {
+			this.defaultValueType = null;
+		}
+	}
+	
+	
+	// Checks if there is a generic type, if no returns String
+	private static Class<?> resolveTypedClass(InjectionPoint ip, String injectionClassName, String injectionFieldName) {
+		
+		Type type = ip.getType();
+		if(primitiveHolderTypes.containsKey(type))
+			return primitiveHolderTypes.get(type);
+		
+		if(type instanceof ParameterizedType) {
+			Type typeArgument = ((ParameterizedType) type).getActualTypeArguments()[0];
+			if(typeArgument instanceof Class)
+				return (Class<?>) typeArgument;
+		}
+		
+		logger.severe("Configurator: No generic parameter provided, can not cast, returning String version. Class: '" + injectionClassName + "', field: '" + injectionFieldName + "'.");
+		return String.class;
+	}
+	
+	
+	public String getPropertyName() {
+		return propertyName;
+	}
+	public Class<?> getTypedClass() {
+		return typedClass;
+	}
+	// Decision made from @ConfiguratorSetup's and the annotation's runtime check.
+	public boolean isRuntimeCheck() {
+		return runtimeCheck;
+	}
+	public RuntimeCheckType getRuntimeCheckType() {
+		return runtimeCheck ? RuntimeCheckType.YES : RuntimeCheckType.NO;
+	}
+	public boolean isLive() {
+		return live;
+	}
+	public TypedOperationType getValueType() {
+		return valueType;
+	}
+	public TypedOperationType getDefaultValueType() {
+		return defaultValueType;
+	}
+	public String getInjectionClassName() {
+		return injectionClassName;
+	}
+	public String getInjectionFieldName() {
+		return injectionFieldName;
+	}
+
+}
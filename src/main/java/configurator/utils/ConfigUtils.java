@@ -16,10 +16,10 @@ public class ConfigUtils {
 		if((globalRuntimeCheck == true && annotationRuntimeCheck == RuntimeCheckType.YES)
 				|| (globalRuntimeCheck == false && annotationRuntimeCheck == RuntimeCheckType.YES)
 				|| (globalRuntimeCheck == true && annotationRuntimeCheck == RuntimeCheckType.USE_GLOBAL)) {
-			loggerVerbose.log("RUNTIME CHECK - ALWAYS RELOADING. Global Runtime = " + settings.isRuntimeCheck() + ", Annotation Runtime = " + annotationRuntimeCheck);
+			loggerVerbose.log(() -> "RUNTIME CHECK - ALWAYS RELOADING. Global Runtime = " + settings.isRuntimeCheck() + ", Annotation Runtime = " + annotationRuntimeCheck);
 			return true;
 		} else {
-			loggerVerbose.log("RUNTIME CHECK - PROPERTIES, NO RELOADING NEEDED. Global Runtime = " + settings.isRuntimeCheck() + ", Annotation Runtime = " + annotationRuntimeCheck);
+			loggerVerbose.log(() -> "RUNTIME CHECK - PROPERTIES, NO RELOADING NEEDED. Global Runtime = " + settings.isRuntimeCheck() + ", Annotation Runtime = " + annotationRuntimeCheck);
 			return false;
 		}
 	}
@@ -0,0 +1,92 @@
+package configurator.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Reads files into heap ByteBuffers with one FileChannel, parsers read the buffer directly without another copy.
+// Files are never memory mapped, a mapped file truncated by an in-place rewrite kills the JVM with SIGBUS when read.
+public class FileBuffers {
+	
+	private static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+	
+	
+	// The buffer holds what the file contains when read, a file growing or shrinking meanwhile is read until its end.
+	public static ByteBuffer read(Path file) throws IOException {
+		
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			
+			long size = channel.size();
+			if(size > MAX_SIZE)
+				throw new IOException("File is too large to be read: " + file);
+			
+			ByteBuffer buffer = ByteBuffer.allocate((int) size + 1);		// One more byte shows the file grew.
+			while(channel.read(buffer) != -1) {
+				if(!buffer.hasRemaining()) {
+					if(buffer.capacity() >= MAX_SIZE)
+						throw new IOException("File is too large to be read: " + file);
+					ByteBuffer larger = ByteBuffer.allocate((int) Math.min(MAX_SIZE, 2L * buffer.capacity()));
+					buffer.flip();
+					buffer = larger.put(buffer);
+				}
+			}
+			buffer.flip();
+			return buffer;
+		}
+	}
+	
+	
+	// Copies the remaining bytes, the buffer position is not changed.
+	public static byte[] toArray(ByteBuffer buffer) {
+		
+		if(buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0 && buffer.remaining() == buffer.array().length)
+			return buffer.array();
+		
+		byte[] content = new byte[buffer.remaining()];
+		buffer.duplicate().get(content);
+		return content;
+	}
+	
+	
+	// Reads a duplicate, the buffer can be read again.
+	public static class ByteBufferInputStream extends InputStream {
+		
+		private final ByteBuffer buffer;
+		
+		public ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer.duplicate();
+		}
+		
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+		
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if(length == 0)
+				return 0;
+			if(!buffer.hasRemaining())
+				return -1;
+			int count = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, count);
+			return count;
+		}
+		
+		@Override
+		public long skip(long n) {
+			int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+			buffer.position(buffer.position() + count);
+			return count;
+		}
+		
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+
+}
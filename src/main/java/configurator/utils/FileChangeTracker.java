@@ -0,0 +1,77 @@
+package configurator.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+// Remembers last-modified time, size and content hash of files, so a reload only reads and parses files which really changed.
+// The file key (inode on Unix) is also compared, a file replaced by a rename or a symlink swap is checked even if time and size are equal.
+public class FileChangeTracker {
+	
+	private final Map<String, FileState> states = new ConcurrentHashMap<>();
+	
+	
+	// Returns the content of the file if it is new or changed since the last call, null otherwise.
+	// Unchanged files cost one stat call, touched files with the same content are read but not returned.
+	// The file is read with one FileChannel into a heap buffer, see FileBuffers.
+	public ByteBuffer readBufferIfChanged(String path) throws IOException {
+		
+		Path file = Paths.get(path);
+		BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+		long lastModified = attributes.lastModifiedTime().toMillis();
+		
+		FileState state = states.get(path);
+		Object fileKey = attributes.fileKey();
+		
+		if(state != null && state.lastModified == lastModified && state.size == attributes.size() && Objects.equals(state.fileKey, fileKey)) {
+			return null;
+		}
+		
+		ByteBuffer content = FileBuffers.read(file);
+		long hash = hash(content);
+		states.put(path, new FileState(fileKey, lastModified, content.remaining(), hash));
+		
+		if(state != null && state.hash == hash) {
+			return null;
+		}
+		
+		return content;
+	}
+	
+	
+	// Next call for the path returns its content even if it did not change.
+	public void forget(String path) {
+		states.remove(path);
+	}
+	
+	
+	private static long hash(ByteBuffer content) {
+		CRC32 crc = new CRC32();
+		crc.update(content.duplicate());
+		return crc.getValue();
+	}
+	
+	
+	private static class FileState {
+		
+		private final Object fileKey;
+		private final long lastModified;
+		private final long size;
+		private final long hash;
+		
+		private FileState(Object fileKey, long lastModified, long size, long hash) {
+			this.fileKey = fileKey;
+			this.lastModified = lastModified;
+			this.size = size;
+			this.hash = hash;
+		}
+	}
+
+}
@@ -0,0 +1,63 @@
+package configurator.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// At most one thread reloads a source at a time and not more often than the minimum interval.
+// Other threads do not wait, they read what was loaded before (the current snapshot of the internal storage).
+public class ReloadCoordinator {
+	
+	private final Map<String, SourceState> sources = new ConcurrentHashMap<>();
+	private volatile long minIntervalMillis = 0;
+	
+	
+	// Returns true if this thread did the reload.
+	public boolean reload(String source, Runnable reload) {
+		
+		SourceState state = sources.computeIfAbsent(source, s -> new SourceState());
+		
+		if(isTooSoon(state))
+			return false;
+		if(state.reloading.compareAndSet(false, true) == false)
+			return false;
+		// Checked again, another thread may have finished a reload between the first check and the CAS.
+		if(isTooSoon(state)) {
+			state.reloading.set(false);
+			return false;
+		}
+		
+		try {
+			reload.run();
+			return true;
+		} finally {
+			state.reloadedAtNanos = System.nanoTime();
+			state.reloadedOnce = true;
+			state.reloading.set(false);
+		}
+	}
+	
+	
+	private boolean isTooSoon(SourceState state) {
+		return state.reloadedOnce && System.nanoTime() - state.reloadedAtNanos < TimeUnit.MILLISECONDS.toNanos(minIntervalMillis);
+	}
+	
+	
+	public long getMinIntervalMillis() {
+		return minIntervalMillis;
+	}
+	// 0 or less - a source is reloaded by every call which does not find another reload running.
+	public void setMinIntervalMillis(long minIntervalMillis) {
+		this.minIntervalMillis = minIntervalMillis;
+	}
+	
+	
+	private static class SourceState {
+		
+		private final AtomicBoolean reloading = new AtomicBoolean();
+		private volatile long reloadedAtNanos;
+		private volatile boolean reloadedOnce;		// nanoTime may be 0 or negative, it cannot mark a missing reload
+	}
+
+}
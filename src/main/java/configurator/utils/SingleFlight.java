@@ -0,0 +1,83 @@
+package configurator.utils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+// Concurrent loads of the same source are done once. The first caller loads, callers coming while it runs wait for its result
+// (or its exception). Loaded values must not be modified by callers, JSON structures are immutable.
+public class SingleFlight {
+	
+	private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+	private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+	
+	
+	public Object load(String key, Callable<Object> loader) throws Exception {
+		
+		Stats keyStats = stats.computeIfAbsent(key, k -> new Stats());
+		CompletableFuture<Object> own = new CompletableFuture<>();
+		CompletableFuture<Object> running = inFlight.putIfAbsent(key, own);
+		
+		if(running != null) {
+			keyStats.coalesced.increment();
+			return SingleFlight.await(running);
+		}
+		
+		keyStats.loads.increment();
+		try {
+			Object value = loader.call();
+			own.complete(value);
+			return value;
+		} catch (Throwable e) {
+			own.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, own);
+		}
+	}
+	
+	
+	// Counters by source key, for monitoring.
+	public Map<String, Stats> getStats() {
+		return Collections.unmodifiableMap(stats);
+	}
+	
+	
+	private static Object await(CompletableFuture<Object> running) throws Exception {
+		
+		try {
+			return running.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof Exception)
+				throw (Exception) cause;
+			throw (Error) cause;
+		}
+	}
+	
+	
+	public static class Stats {
+		
+		private final LongAdder loads = new LongAdder();
+		private final LongAdder coalesced = new LongAdder();
+		
+		// Loads really done.
+		public long getLoads() {
+			return loads.sum();
+		}
+		// Calls which got the result of a load started by another thread.
+		public long getCoalesced() {
+			return coalesced.sum();
+		}
+		
+		@Override
+		public String toString() {
+			return "loads: " + getLoads() + ", coalesced: " + getCoalesced();
+		}
+	}
+
+}
@@ -0,0 +1,121 @@
+package configurator.utils;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+// Values of slow sources by key. A fresh value is returned as is, a stale one is returned at once and refreshed by one background task,
+// only a missing or expired value is loaded on the calling thread.
+public class StaleWhileRevalidateCache {
+	
+	private static final int REFRESH_THREADS = 2;
+	
+	private final Logger logger;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private volatile ExecutorService executor;
+	private volatile boolean closed;			// after shutdown stale values are returned without a refresh
+	
+	
+	public StaleWhileRevalidateCache(Logger logger) {
+		this.logger = logger;
+	}
+	
+	
+	// maxAgeMillis - the value is fresh for this time, staleMillis - then it is still returned for this time while being refreshed.
+	public Object get(String key, long maxAgeMillis, long staleMillis, Callable<Object> loader) throws Exception {
+		
+		Entry entry = entries.get(key);
+		long now = System.nanoTime();
+		
+		if(entry != null) {
+			long age = now - entry.loadedAtNanos;
+			if(age < TimeUnit.MILLISECONDS.toNanos(maxAgeMillis))
+				return entry.value;
+			
+			if(age < TimeUnit.MILLISECONDS.toNanos(maxAgeMillis) + TimeUnit.MILLISECONDS.toNanos(staleMillis)) {
+				if(closed == false && entry.refreshing.compareAndSet(false, true))
+					refreshInBackground(key, entry, loader);
+				return entry.value;
+			}
+		}
+		
+		Object value = loader.call();
+		if(value != null)
+			entries.put(key, new Entry(value, System.nanoTime()));
+		return value;
+	}
+	
+	
+	// A failed refresh keeps the stale value, the next call after it tries again.
+	private void refreshInBackground(String key, Entry entry, Callable<Object> loader) {
+		
+		try {
+			executor().execute(() -> {
+				try {
+					Object value = loader.call();
+					if(value != null)
+						entries.replace(key, entry, new Entry(value, System.nanoTime()));
+				} catch (Exception e) {
+					logger.severe("Configurator: Background refresh of '" + key + "' failed, the stale value is used, exception: " + e.getMessage());
+				} finally {
+					entry.refreshing.set(false);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			entry.refreshing.set(false);
+		}
+	}
+	
+	
+	// Throws RejectedExecutionException after shutdown, a new pool is never created then.
+	private ExecutorService executor() {
+		
+		ExecutorService current = executor;
+		if(current == null) {
+			synchronized (this) {
+				if(closed == true)
+					throw new RejectedExecutionException("Refresh cache is shut down");
+				if(executor == null) {
+					AtomicInteger count = new AtomicInteger();
+					executor = Executors.newFixedThreadPool(REFRESH_THREADS, runnable -> {
+						Thread thread = new Thread(runnable, "Configurator-refresh-" + count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					});
+				}
+				current = executor;
+			}
+		}
+		return current;
+	}
+	
+	
+	public synchronized void shutdown() {
+		closed = true;
+		if(executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+	
+	
+	private static class Entry {
+		
+		private final Object value;
+		private final long loadedAtNanos;
+		private final AtomicBoolean refreshing = new AtomicBoolean();
+		
+		private Entry(Object value, long loadedAtNanos) {
+			this.value = value;
+			this.loadedAtNanos = loadedAtNanos;
+		}
+	}
+
+}
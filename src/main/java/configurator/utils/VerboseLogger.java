@@ -1,6 +1,38 @@
 package configurator.utils;
 
-@FunctionalInterface
-public interface VerboseLogger {
-	public void log(String info);
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+// Verbose logging of loaders. One instance is shared, so it can be turned on and off at runtime also for classes which keep it
+// in static fields. When off, a call costs a read of a volatile flag, messages passed as suppliers are not built.
+public final class VerboseLogger {
+	
+	private final Logger logger;
+	private volatile boolean enabled;
+	
+	
+	public VerboseLogger(Logger logger) {
+		this.logger = logger;
+	}
+	
+	
+	public void log(String info) {
+		if(enabled)
+			logger.warning(info);
+	}
+	
+	// For messages built by concatenation, they are built only if verbose is on.
+	public void log(Supplier<String> info) {
+		if(enabled)
+			logger.warning(info.get());
+	}
+	
+	
+	public boolean isEnabled() {
+		return enabled;
+	}
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
 }